@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.jline.terminal.Terminal;
+import org.jline.terminal.impl.DumbTerminal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.experimental.initializrcli.component.StringInput.StringInputContext;
+import org.springframework.experimental.initializrcli.component.context.ComponentContext;
+
+/**
+ * Benchmarks copying a flow context into a component context with
+ * {@code getThisContext} and a first write into a copied context.
+ *
+ * @author Janne Valkealahti
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ComponentContextBenchmark {
+
+	@Param({ "4", "16", "64" })
+	int entries;
+
+	private StringInput component;
+	private ComponentContext<?>[] contexts;
+	private int next;
+
+	@Setup
+	public void setup() throws IOException {
+		Terminal terminal = new DumbTerminal("terminal", "ansi", new ByteArrayInputStream(new byte[0]),
+				new ByteArrayOutputStream(), StandardCharsets.UTF_8);
+		component = new StringInput(terminal, "Name", "demo");
+		// alternate between two contexts as a same one is not copied again
+		contexts = new ComponentContext<?>[] { context(), context() };
+	}
+
+	@Benchmark
+	public StringInputContext copyIn() {
+		return component.getThisContext(nextContext());
+	}
+
+	@Benchmark
+	public StringInputContext copyInAndWrite() {
+		StringInputContext context = component.getThisContext(nextContext());
+		context.setInput("demo");
+		return context;
+	}
+
+	private ComponentContext<?> nextContext() {
+		next = (next + 1) & 1;
+		return contexts[next];
+	}
+
+	private ComponentContext<?> context() {
+		ComponentContext<?> context = ComponentContext.empty();
+		for (int i = 0; i < entries; i++) {
+			context.put("key" + i, "value" + i);
+		}
+		return context;
+	}
+}
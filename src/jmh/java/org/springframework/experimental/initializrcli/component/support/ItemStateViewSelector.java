@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.component.support;
+
+import java.util.List;
+
+import org.jline.terminal.Terminal;
+
+import org.springframework.experimental.initializrcli.component.context.ComponentContext;
+import org.springframework.experimental.initializrcli.component.support.AbstractSelectorComponent.SelectorComponentContext;
+
+/**
+ * Selector working on a given context which doesn't read any input. Running
+ * it only builds an item view into a context same way as a selector does on
+ * every keystroke, meaning benchmarks can measure that without a terminal
+ * loop.
+ *
+ * @author Janne Valkealahti
+ */
+class ItemStateViewSelector<C extends SelectorComponentContext<String, SelectorItem<String>, C>>
+		extends AbstractSelectorComponent<String, C, SelectorItem<String>> {
+
+	private final C context;
+
+	ItemStateViewSelector(Terminal terminal, List<SelectorItem<String>> items, boolean exitSelects, C context) {
+		super(terminal, context.getName(), items, exitSelects, null);
+		this.context = context;
+	}
+
+	/**
+	 * Builds an item view for a current input of a context.
+	 *
+	 * @return the context
+	 */
+	C buildView() {
+		return runInternal(context);
+	}
+
+	@Override
+	protected C getThisContext(ComponentContext<?> context) {
+		return this.context;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.component.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jline.terminal.Terminal;
+import org.jline.terminal.impl.DumbTerminal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.experimental.initializrcli.component.SingleItemSelector;
+import org.springframework.experimental.initializrcli.component.SingleItemSelector.SingleItemSelectorContext;
+import org.springframework.experimental.initializrcli.component.context.ComponentContext;
+
+/**
+ * Benchmarks building a selector item view when a query is typed one
+ * character at a time, which is what happens on every keystroke.
+ *
+ * @author Janne Valkealahti
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SelectorComponentBenchmark {
+
+	private final static String[] WORDS = { "spring", "web", "data", "jpa", "reactive", "cloud", "security",
+			"batch", "kafka", "redis", "session", "actuator", "native", "graphql", "config", "stream" };
+
+	@Param({ "10", "100", "1000" })
+	int size;
+
+	@Param({ "0", "1", "3", "8" })
+	int queryLength;
+
+	@Param({ "substring", "fuzzy" })
+	String matcher;
+
+	private ItemStateViewSelector<SingleItemSelectorContext<String, SelectorItem<String>>> selector;
+	private SingleItemSelectorContext<String, SelectorItem<String>> context;
+	private String[] prefixes;
+
+	@Setup
+	public void setup() throws IOException {
+		Random random = new Random(0);
+		List<SelectorItem<String>> items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+			items.add(SelectorItem.of(name, "id" + i));
+		}
+		Terminal terminal = new DumbTerminal("terminal", "ansi", new ByteArrayInputStream(new byte[0]),
+				new ByteArrayOutputStream(), StandardCharsets.UTF_8);
+		AbstractComponent<SingleItemSelectorContext<String, SelectorItem<String>>> component = new SingleItemSelector<>(
+				terminal, items, "name", null);
+		context = component.getThisContext(ComponentContext.empty());
+		selector = new ItemStateViewSelector<>(terminal, items, true, context);
+		selector.setMatcher("fuzzy".equals(matcher) ? Matcher.fuzzy() : Matcher.substring());
+		// a query taken from a middle item so that something always matches
+		String name = items.get(size / 2).getName();
+		String query = name.substring(0, Math.min(queryLength, name.length()));
+		prefixes = new String[query.length() + 1];
+		for (int i = 0; i < prefixes.length; i++) {
+			prefixes[i] = query.substring(0, i);
+		}
+		selector.buildView();
+	}
+
+	@Benchmark
+	public void typeQuery(Blackhole blackhole) {
+		// starts from an empty query so that cached filter levels are dropped
+		for (String prefix : prefixes) {
+			context.setInput(prefix);
+			blackhole.consume(selector.buildView().getItemStateView());
+		}
+	}
+
+	@Benchmark
+	public void navigate(Blackhole blackhole) {
+		// same query again like on cursor moves
+		context.setInput(prefixes[prefixes.length - 1]);
+		blackhole.consume(selector.buildView().getItemStateView());
+	}
+}
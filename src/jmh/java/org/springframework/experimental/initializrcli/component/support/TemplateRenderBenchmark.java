@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.component.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.jline.terminal.Terminal;
+import org.jline.terminal.impl.DumbTerminal;
+import org.jline.utils.AttributedString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.experimental.initializrcli.component.MultiItemSelector;
+import org.springframework.experimental.initializrcli.component.MultiItemSelector.MultiItemSelectorContext;
+import org.springframework.experimental.initializrcli.component.PathInput;
+import org.springframework.experimental.initializrcli.component.PathInput.PathInputContext;
+import org.springframework.experimental.initializrcli.component.SingleItemSelector;
+import org.springframework.experimental.initializrcli.component.SingleItemSelector.SingleItemSelectorContext;
+import org.springframework.experimental.initializrcli.component.StringInput;
+import org.springframework.experimental.initializrcli.component.StringInput.StringInputContext;
+import org.springframework.experimental.initializrcli.component.context.ComponentContext;
+import org.springframework.shell.style.TemplateExecutor;
+import org.springframework.shell.style.Theme;
+import org.springframework.shell.style.ThemeRegistry;
+import org.springframework.shell.style.ThemeResolver;
+import org.springframework.shell.style.ThemeSettings;
+
+/**
+ * Benchmarks rendering a frame of a component with its default
+ * {@code .stg} template.
+ *
+ * @author Janne Valkealahti
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TemplateRenderBenchmark {
+
+	@Param({ "string-input", "path-input", "single-item-selector", "multi-item-selector" })
+	String template;
+
+	private Supplier<List<AttributedString>> render;
+
+	@Setup
+	public void setup() throws IOException {
+		Terminal terminal = new DumbTerminal("terminal", "ansi", new ByteArrayInputStream(new byte[0]),
+				new ByteArrayOutputStream(), StandardCharsets.UTF_8);
+		List<SelectorItem<String>> items = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			items.add(SelectorItem.of("item" + i, "id" + i));
+		}
+		switch (template) {
+			case "string-input": {
+				StringInput component = configure(new StringInput(terminal, "Name", "demo"));
+				StringInputContext context = thisContext(component);
+				context.setInput("demo project");
+				render = () -> component.renderTemplateResource(context.toTemplateModel());
+				break;
+			}
+			case "path-input": {
+				PathInput component = configure(new PathInput(terminal, "Path"));
+				PathInputContext context = thisContext(component);
+				context.setInput("tmp/demo");
+				render = () -> component.renderTemplateResource(context.toTemplateModel());
+				break;
+			}
+			case "single-item-selector": {
+				SingleItemSelector<String, SelectorItem<String>> component = configure(
+						new SingleItemSelector<>(terminal, items, "Single", null));
+				SingleItemSelectorContext<String, SelectorItem<String>> context = thisContext(component);
+				new ItemStateViewSelector<>(terminal, items, true, context).buildView();
+				render = () -> component.renderTemplateResource(context.toTemplateModel());
+				break;
+			}
+			case "multi-item-selector": {
+				MultiItemSelector<String, SelectorItem<String>> component = configure(
+						new MultiItemSelector<>(terminal, items, "Multi", null));
+				MultiItemSelectorContext<String, SelectorItem<String>> context = thisContext(component);
+				new ItemStateViewSelector<>(terminal, items, false, context).buildView();
+				render = () -> component.renderTemplateResource(context.toTemplateModel());
+				break;
+			}
+			default:
+				throw new IllegalArgumentException("Unknown template " + template);
+		}
+	}
+
+	@Benchmark
+	public List<AttributedString> render() {
+		return render.get();
+	}
+
+	private static <T extends AbstractComponent<?>> T configure(T component) {
+		component.setResourceLoader(new DefaultResourceLoader());
+		component.setTemplateExecutor(templateExecutor());
+		return component;
+	}
+
+	private static <C extends ComponentContext<C>> C thisContext(AbstractComponent<C> component) {
+		return component.getThisContext(ComponentContext.empty());
+	}
+
+	private static TemplateExecutor templateExecutor() {
+		ThemeRegistry themeRegistry = new ThemeRegistry();
+		themeRegistry.register(new Theme() {
+			@Override
+			public String getName() {
+				return "default";
+			}
+
+			@Override
+			public ThemeSettings getSettings() {
+				return ThemeSettings.themeSettings();
+			}
+		});
+		return new TemplateExecutor(new ThemeResolver(themeRegistry, "default"));
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.support;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.experimental.initializrcli.client.model.Dependency;
+
+/**
+ * Benchmarks checking a dependency version range against a boot version.
+ *
+ * @author Janne Valkealahti
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InitializrUtilsBenchmark {
+
+	@Param({ "", "2.6.3", "[2.5.0,2.7.0-M1)", "[2.6.0.RELEASE,2.7.0.M1)" })
+	String versionRange;
+
+	@Param({ "2.6.3", "2.7.0-SNAPSHOT" })
+	String bootVersion;
+
+	private Dependency dependency;
+
+	@Setup
+	public void setup() {
+		dependency = new Dependency();
+		dependency.setId("native");
+		dependency.setVersionRange(versionRange);
+	}
+
+	@Benchmark
+	public boolean isDependencyCompatible() {
+		return InitializrUtils.isDependencyCompatible(dependency, bootVersion);
+	}
+}
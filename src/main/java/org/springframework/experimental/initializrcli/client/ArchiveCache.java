@@ -0,0 +1,224 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Content addressed disk cache for generated project archives. Archives are
+ * keyed by a hash of normalized request parameters and stored under a
+ * directory named after a hash of a base url and a metadata version, meaning
+ * archives generated against an older metadata of a same target are dropped
+ * once its metadata changes while archives of other targets are kept. Total
+ * size of all archives is bounded and least recently used archives are
+ * evicted first.
+ *
+ * @author Janne Valkealahti
+ */
+public class ArchiveCache {
+
+	private final static Logger log = LoggerFactory.getLogger(ArchiveCache.class);
+	private final static String SUFFIX = ".tgz";
+	private final Path directory;
+	private final long maxSize;
+
+	public ArchiveCache(Path directory, long maxSize) {
+		Assert.notNull(directory, "directory must be set");
+		this.directory = directory;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Gets a cached archive for a request. Returned archive is marked as recently
+	 * used.
+	 *
+	 * @param baseUrl the base url
+	 * @param metadataVersion the metadata version
+	 * @param request the project request
+	 * @return path to cached archive or empty if not cached
+	 */
+	public Optional<Path> get(String baseUrl, String metadataVersion, ProjectRequest request) {
+		Path archive = archiveFile(baseUrl, metadataVersion, request);
+		if (!Files.isRegularFile(archive)) {
+			return Optional.empty();
+		}
+		try {
+			Files.setLastModifiedTime(archive, FileTime.fromMillis(System.currentTimeMillis()));
+		}
+		catch (IOException e) {
+			log.debug("Unable to touch cached archive {}", archive, e);
+		}
+		return Optional.of(archive);
+	}
+
+	/**
+	 * Creates a temporary file to which an archive can be written before it is
+	 * committed into a cache.
+	 *
+	 * @param baseUrl the base url
+	 * @param metadataVersion the metadata version
+	 * @return the temporary file
+	 * @throws IOException if file cannot be created
+	 */
+	public Path createTempFile(String baseUrl, String metadataVersion) throws IOException {
+		Path versionDirectory = versionDirectory(baseUrl, metadataVersion);
+		Files.createDirectories(versionDirectory);
+		return Files.createTempFile(versionDirectory, "archive", null);
+	}
+
+	/**
+	 * Commit a fully written temporary file into a cache. Archives from other
+	 * metadata versions of a same base url are removed and least recently used
+	 * archives evicted if cache grows over its maximum size. Cache is considered to be best effort so
+	 * failures are only logged.
+	 *
+	 * @param baseUrl the base url
+	 * @param metadataVersion the metadata version
+	 * @param request the project request
+	 * @param tempFile the temporary file
+	 */
+	public void commit(String baseUrl, String metadataVersion, ProjectRequest request, Path tempFile) {
+		try {
+			Files.move(tempFile, archiveFile(baseUrl, metadataVersion, request), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			purgeOtherVersions(baseUrl, metadataVersion);
+			evict();
+		}
+		catch (IOException e) {
+			log.debug("Unable to cache archive for {}", request, e);
+			discard(tempFile);
+		}
+	}
+
+	/**
+	 * Discard a temporary file which was not committed.
+	 *
+	 * @param tempFile the temporary file
+	 */
+	public void discard(Path tempFile) {
+		try {
+			Files.deleteIfExists(tempFile);
+		}
+		catch (IOException e) {
+			log.debug("Unable to delete {}", tempFile, e);
+		}
+	}
+
+	private void purgeOtherVersions(String baseUrl, String metadataVersion) throws IOException {
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(targetDirectory(baseUrl), Files::isDirectory)) {
+			for (Path path : stream) {
+				if (!path.getFileName().toString().equals(metadataVersion)) {
+					FileSystemUtils.deleteRecursively(path);
+				}
+			}
+		}
+	}
+
+	private void evict() throws IOException {
+		List<Path> archives;
+		try (Stream<Path> stream = Files.walk(directory, 3)) {
+			archives = stream.filter(p -> p.getFileName().toString().endsWith(SUFFIX) && Files.isRegularFile(p))
+					.collect(Collectors.toList());
+		}
+		catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		List<CachedArchive> entries = new ArrayList<>(archives.size());
+		long total = 0;
+		for (Path archive : archives) {
+			try {
+				CachedArchive entry = new CachedArchive(archive, Files.size(archive),
+						Files.getLastModifiedTime(archive));
+				entries.add(entry);
+				total += entry.size;
+			}
+			catch (NoSuchFileException e) {
+				// removed concurrently by other cache user
+			}
+		}
+		entries.sort(Comparator.comparing(e -> e.lastModified));
+		for (CachedArchive entry : entries) {
+			if (total <= maxSize) {
+				break;
+			}
+			Files.deleteIfExists(entry.path);
+			total -= entry.size;
+			log.debug("Evicted cached archive {}", entry.path);
+		}
+	}
+
+	private Path targetDirectory(String baseUrl) {
+		return directory.resolve(DigestUtils.md5DigestAsHex(baseUrl.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private Path versionDirectory(String baseUrl, String metadataVersion) {
+		return targetDirectory(baseUrl).resolve(metadataVersion);
+	}
+
+	private Path archiveFile(String baseUrl, String metadataVersion, ProjectRequest request) {
+		return versionDirectory(baseUrl, metadataVersion).resolve(key(request) + SUFFIX);
+	}
+
+	/**
+	 * Build a canonical key where parameter order and dependency order doesn't
+	 * matter.
+	 */
+	private static String key(ProjectRequest request) {
+		ProjectRequest normalized = new ProjectRequest();
+		normalized.setDependencies(request.getDependencies().stream().sorted().distinct().collect(Collectors.toList()));
+		Map<String, String> parameters = new TreeMap<>(request.toParameters());
+		parameters.putAll(normalized.toParameters());
+		StringBuilder buf = new StringBuilder();
+		parameters.forEach((name, value) -> buf.append(name).append('=').append(value).append('\n'));
+		return DigestUtils.md5DigestAsHex(buf.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static class CachedArchive {
+
+		final Path path;
+		final long size;
+		final FileTime lastModified;
+
+		CachedArchive(Path path, long size, FileTime lastModified) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+	}
+}
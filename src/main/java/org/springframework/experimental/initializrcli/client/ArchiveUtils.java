@@ -0,0 +1,242 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Utilities for extracting project archives.
+ *
+ * @author Janne Valkealahti
+ */
+public abstract class ArchiveUtils {
+
+	private final static int BUFFER_SIZE = 8192;
+	private final static int PREFETCH = 16;
+
+	/**
+	 * Extract a {@code tar.gz} archive from a stream of data buffers into a given
+	 * directory. Entries are written as buffers arrive meaning archive is never
+	 * stored as a whole. Remaining data after a last entry is drained so that a
+	 * whole flux is consumed on success, on failure or interrupt a subscription
+	 * is cancelled without waiting for a rest of an archive.
+	 *
+	 * @param dataBuffers the archive data buffers
+	 * @param outputDirectory the directory to extract into
+	 * @throws IOException if extraction fails
+	 */
+	public static void extractTarGz(Flux<DataBuffer> dataBuffers, Path outputDirectory) throws IOException {
+		try (InputStream in = asInputStream(dataBuffers)) {
+			extractTarGz(in, outputDirectory);
+			in.transferTo(OutputStream.nullOutputStream());
+		}
+	}
+
+	/**
+	 * Extract a {@code tar.gz} archive from an input stream into a given directory.
+	 *
+	 * @param in the archive input stream
+	 * @param outputDirectory the directory to extract into
+	 * @throws IOException if extraction fails
+	 */
+	public static void extractTarGz(InputStream in, Path outputDirectory) throws IOException {
+		Path root = outputDirectory.toAbsolutePath().normalize();
+		TarArchiveInputStream tar = new TarArchiveInputStream(new GZIPInputStream(in, BUFFER_SIZE));
+		TarArchiveEntry entry;
+		while ((entry = tar.getNextTarEntry()) != null) {
+			Path target = root.resolve(entry.getName()).normalize();
+			if (!target.startsWith(root)) {
+				throw new IOException(String.format("Archive entry %s is outside of %s", entry.getName(), root));
+			}
+			if (entry.isDirectory()) {
+				Files.createDirectories(target);
+			}
+			else {
+				Files.createDirectories(target.getParent());
+				Files.copy(tar, target, StandardCopyOption.REPLACE_EXISTING);
+				if ((entry.getMode() & 0100) != 0) {
+					setExecutable(target);
+				}
+			}
+		}
+	}
+
+	private static void setExecutable(Path path) throws IOException {
+		// i.e. keep 'mvnw' and 'gradlew' executable
+		if (Files.getFileAttributeView(path, PosixFileAttributeView.class) == null) {
+			return;
+		}
+		Set<PosixFilePermission> permissions = new HashSet<>(Files.getPosixFilePermissions(path));
+		permissions.add(PosixFilePermission.OWNER_EXECUTE);
+		permissions.add(PosixFilePermission.GROUP_EXECUTE);
+		permissions.add(PosixFilePermission.OTHERS_EXECUTE);
+		Files.setPosixFilePermissions(path, permissions);
+	}
+
+	private static InputStream asInputStream(Flux<DataBuffer> dataBuffers) {
+		DataBufferInputStream in = new DataBufferInputStream();
+		dataBuffers.subscribe(in.subscriber);
+		return in;
+	}
+
+	/**
+	 * Input stream reading from data buffers as they arrive. Buffers are
+	 * requested with a backpressure, released once read and closing a stream
+	 * cancels a subscription and releases buffers not yet read, meaning a
+	 * failed extraction never waits for a rest of an archive. Blocking for a
+	 * next buffer responds to an interrupt.
+	 */
+	private static class DataBufferInputStream extends InputStream {
+
+		private final static Object COMPLETE = new Object();
+		private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+		private final BufferSubscriber subscriber = new BufferSubscriber();
+		private volatile boolean closed;
+		private volatile Throwable error;
+		private DataBuffer current;
+		private boolean done;
+
+		@Override
+		public int read() throws IOException {
+			DataBuffer buffer = nextBuffer();
+			return buffer != null ? buffer.read() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			DataBuffer buffer = nextBuffer();
+			if (buffer == null) {
+				return -1;
+			}
+			int count = Math.min(len, buffer.readableByteCount());
+			buffer.read(b, off, count);
+			return count;
+		}
+
+		@Override
+		public void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			subscriber.dispose();
+			release();
+			drain();
+		}
+
+		/**
+		 * Gets a buffer with readable bytes, {@code null} when all data is read.
+		 */
+		private DataBuffer nextBuffer() throws IOException {
+			if (closed) {
+				throw new IOException("Stream closed");
+			}
+			while (current == null || current.readableByteCount() == 0) {
+				release();
+				if (done) {
+					return null;
+				}
+				Object next;
+				try {
+					next = queue.take();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting for archive data");
+				}
+				if (next == COMPLETE) {
+					done = true;
+					if (error != null) {
+						throw new IOException("Archive download failed", error);
+					}
+					return null;
+				}
+				current = (DataBuffer) next;
+				subscriber.request(1);
+			}
+			return current;
+		}
+
+		private void release() {
+			if (current != null) {
+				DataBufferUtils.release(current);
+				current = null;
+			}
+		}
+
+		private void drain() {
+			Object next;
+			while ((next = queue.poll()) != null) {
+				if (next instanceof DataBuffer) {
+					DataBufferUtils.release((DataBuffer) next);
+				}
+			}
+		}
+
+		private class BufferSubscriber extends BaseSubscriber<DataBuffer> {
+
+			@Override
+			protected void hookOnSubscribe(Subscription subscription) {
+				subscription.request(PREFETCH);
+			}
+
+			@Override
+			protected void hookOnNext(DataBuffer buffer) {
+				queue.add(buffer);
+				if (closed) {
+					// arrived while closing
+					drain();
+				}
+			}
+
+			@Override
+			protected void hookOnComplete() {
+				queue.add(COMPLETE);
+			}
+
+			@Override
+			protected void hookOnError(Throwable throwable) {
+				error = throwable;
+				queue.add(COMPLETE);
+			}
+		}
+	}
+}
@@ -15,18 +15,33 @@
  */
 package org.springframework.experimental.initializrcli.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.util.StringUtils;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileSystemUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 
 /**
@@ -56,13 +71,54 @@ public interface InitializrClient {
 	String info();
 
 	/**
-	 * Generate a project as a tgz file and return a path to it.
+	 * Generate a project and extract it into a given directory. Project archive is
+	 * extracted while it is downloaded.
 	 *
-	 * @return the path to generated tgz project file
+	 * @param request the project request
+	 * @param outputDirectory the directory to extract into
 	 */
-	Path generate(String projectType, String languageType, String bootVersion, List<String> dependencies,
-			String version, String groupId, String artifact, String name, String description, String packageName, String packaging,
-			String javaVersion);
+	void generate(ProjectRequest request, Path outputDirectory);
+
+	/**
+	 * Generate a project when a returned mono is subscribed. Generation blocks a
+	 * subscribing thread so a mono should be subscribed on a scheduler meant for
+	 * blocking work. Cancelling a subscription interrupts a generation in
+	 * progress which stops a download, and an output directory is removed on
+	 * failure or cancellation if it didn't exist before.
+	 *
+	 * @param request the project request
+	 * @param outputDirectory the directory to extract into
+	 * @return the mono completing when project is generated
+	 */
+	default Mono<Void> generateAsync(ProjectRequest request, Path outputDirectory) {
+		return Mono.fromRunnable(() -> {
+			boolean created = Files.notExists(outputDirectory);
+			try {
+				generate(request, outputDirectory);
+			}
+			catch (RuntimeException e) {
+				if (created) {
+					try {
+						FileSystemUtils.deleteRecursively(outputDirectory);
+					}
+					catch (IOException ex) {
+						e.addSuppressed(ex);
+					}
+				}
+				throw e;
+			}
+			// interrupted after a generation completed means a subscription was
+			// cancelled and nobody receives a result
+			if (created && Thread.interrupted()) {
+				try {
+					FileSystemUtils.deleteRecursively(outputDirectory);
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		});
+	}
 
 	/**
 	 * Interface for a initializr client builder.
@@ -77,6 +133,42 @@ public interface InitializrClient {
 		 */
 		Builder target(String baseUrl);
 
+		/**
+		 * Sets a directory used to cache data between runs. Caching is disabled if
+		 * directory is not set.
+		 *
+		 * @param cacheDirectory the cache directory
+		 * @return the builder
+		 */
+		Builder cacheDirectory(Path cacheDirectory);
+
+		/**
+		 * Sets a maximum total size of cached project archives in bytes. Only used
+		 * if cache directory is set.
+		 *
+		 * @param archiveCacheMaxSize the maximum size of cached archives
+		 * @return the builder
+		 */
+		Builder archiveCacheMaxSize(long archiveCacheMaxSize);
+
+		/**
+		 * Sets a metadata cache used instead of one in a cache directory, meaning
+		 * a same cache can be shared between clients.
+		 *
+		 * @param metadataCache the metadata cache
+		 * @return the builder
+		 */
+		Builder metadataCache(MetadataCache metadataCache);
+
+		/**
+		 * Sets a metadata snapshot file. If set, client doesn't talk with a server
+		 * and projects are generated locally using metadata from a snapshot.
+		 *
+		 * @param metadataSnapshot the metadata snapshot file
+		 * @return the builder
+		 */
+		Builder metadataSnapshot(Path metadataSnapshot);
+
 		/**
 		 * Builds an initializr client.
 		 *
@@ -97,7 +189,13 @@ public interface InitializrClient {
 
 	public static class DefaultBuilder implements Builder {
 
+		private final static long DEFAULT_ARCHIVE_CACHE_MAX_SIZE = 100 * 1024 * 1024;
+
 		private String baseUrl;
+		private Path cacheDirectory;
+		private long archiveCacheMaxSize = DEFAULT_ARCHIVE_CACHE_MAX_SIZE;
+		private MetadataCache metadataCache;
+		private Path metadataSnapshot;
 		private WebClient.Builder webClientBuilder;
 
 		DefaultBuilder(WebClient.Builder webClientBuilder) {
@@ -109,40 +207,84 @@ public interface InitializrClient {
 			return this;
 		}
 
+		public Builder cacheDirectory(Path cacheDirectory) {
+			this.cacheDirectory = cacheDirectory;
+			return this;
+		}
+
+		public Builder archiveCacheMaxSize(long archiveCacheMaxSize) {
+			this.archiveCacheMaxSize = archiveCacheMaxSize;
+			return this;
+		}
+
+		public Builder metadataCache(MetadataCache metadataCache) {
+			this.metadataCache = metadataCache;
+			return this;
+		}
+
+		public Builder metadataSnapshot(Path metadataSnapshot) {
+			this.metadataSnapshot = metadataSnapshot;
+			return this;
+		}
+
 		public InitializrClient build() {
+			if (metadataSnapshot != null) {
+				return new OfflineInitializrClient(metadataSnapshot);
+			}
 			WebClient client = webClientBuilder
 					.baseUrl(this.baseUrl)
 					.build();
-			return new DefaultInitializrClient(client, this.baseUrl);
+			MetadataCache metadataCache = this.metadataCache;
+			if (metadataCache == null && cacheDirectory != null) {
+				metadataCache = new MetadataCache(cacheDirectory);
+			}
+			ArchiveCache archiveCache = cacheDirectory != null
+					? new ArchiveCache(cacheDirectory.resolve("archives"), archiveCacheMaxSize)
+					: null;
+			return new DefaultInitializrClient(client, this.baseUrl, metadataCache, archiveCache);
 		}
 	}
 
 	public static class DefaultInitializrClient implements InitializrClient {
 
+		private final static Logger log = LoggerFactory.getLogger(DefaultInitializrClient.class);
 		private final static MediaType INITIALIZER_MEDIA_TYPE = new MediaType("application", "vnd.initializr.v2.2+json");
+		private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
 		private WebClient client;
-		private Metadata metadata;
-		private AtomicBoolean connected = new AtomicBoolean(false);
+		private final AtomicReference<CompletableFuture<Metadata>> metadata = new AtomicReference<>();
 		private String baseUrl;
+		private MetadataCache metadataCache;
+		private ArchiveCache archiveCache;
+		private volatile String metadataVersion;
 
 		public DefaultInitializrClient(WebClient client, String baseUrl) {
+			this(client, baseUrl, null, null);
+		}
+
+		public DefaultInitializrClient(WebClient client, String baseUrl, MetadataCache metadataCache,
+				ArchiveCache archiveCache) {
 			this.client = client;
 			this.baseUrl = baseUrl;
+			this.metadataCache = metadataCache;
+			this.archiveCache = archiveCache;
 		}
 
 		@Override
 		public void connect() {
-			if (connected.compareAndSet(false, true)) {
-				updateMetadata();
-			}
+			getMetadata();
 		}
 
 		@Override
 		public Metadata getMetadata() {
-			if (!connected.get()) {
-				connect();
+			try {
+				return loadMetadata().join();
+			}
+			catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw e;
 			}
-			return metadata;
 		}
 
 		@Override
@@ -151,40 +293,213 @@ public interface InitializrClient {
 		}
 
 		@Override
-		public Path generate(String projectType, String languageType, String bootVersion, List<String> dependencies,
-				String version, String groupId, String artifact, String name, String description, String packageName, String packaging,
-				String javaVersion) {
+		public void generate(ProjectRequest request, Path outputDirectory) {
+			try {
+				if (archiveCache != null) {
+					generateCached(request, outputDirectory);
+				}
+				else {
+					ArchiveUtils.extractTarGz(download(request), outputDirectory);
+				}
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private void generateCached(ProjectRequest request, Path outputDirectory) throws IOException {
+			// archives are only valid for metadata they were generated with
+			getMetadata();
+			String version = metadataVersion;
+			if (version == null) {
+				ArchiveUtils.extractTarGz(download(request), outputDirectory);
+				return;
+			}
+			Optional<Path> cached = archiveCache.get(baseUrl, version, request);
+			if (cached.isPresent()) {
+				log.debug("Using cached archive {} for {}", cached.get(), request);
+				try (InputStream in = Files.newInputStream(cached.get())) {
+					ArchiveUtils.extractTarGz(in, outputDirectory);
+				}
+				return;
+			}
+			// write buffers into a cache while extracting and commit only if
+			// a whole archive was received
+			Path tempFile = archiveCache.createTempFile(baseUrl, version);
+			boolean completed = false;
+			try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+				ArchiveUtils.extractTarGz(download(request).doOnNext(buffer -> write(channel, buffer)),
+						outputDirectory);
+				completed = true;
+			}
+			finally {
+				if (completed) {
+					archiveCache.commit(baseUrl, version, request, tempFile);
+				}
+				else {
+					archiveCache.discard(tempFile);
+				}
+			}
+		}
+
+		private Flux<DataBuffer> download(ProjectRequest request) {
+			return client.get()
+					.uri(uriBuilder -> {
+						uriBuilder.path("starter.tgz");
+						request.toParameters().forEach((name, value) -> uriBuilder.queryParam(name, value));
+						return uriBuilder.build();
+					})
+					.accept(MediaType.ALL)
+					.retrieve().bodyToFlux(DataBuffer.class);
+		}
+
+		private static void write(FileChannel channel, DataBuffer buffer) {
+			ByteBuffer byteBuffer = buffer.asByteBuffer();
 			try {
-				Path tmp = Files.createTempFile("initializrcli", null);
-				Flux<DataBuffer> dataBuffer = client.get()
-						.uri(uriBuilder -> uriBuilder.path("starter.tgz")
-								.queryParam("type", projectType)
-								.queryParam("dependencies", StringUtils.collectionToCommaDelimitedString(dependencies))
-								.queryParam("packaging", packaging)
-								.queryParam("javaVersion", javaVersion)
-								.queryParam("language", languageType)
-								.queryParam("bootVersion", bootVersion)
-								.queryParam("version", version)
-								.queryParam("groupId", groupId)
-								.queryParam("artifactId", artifact)
-								.queryParam("name", name)
-								.queryParam("description", description)
-								.queryParam("packageName", packageName)
-								.build())
-						.accept(MediaType.ALL)
-						.retrieve().bodyToFlux(DataBuffer.class);
-				DataBufferUtils.write(dataBuffer, tmp).block();
-				return tmp;
-			} catch (Exception e) {
-				throw new RuntimeException(e);
-			}
-		}
-
-		private void updateMetadata() {
-			this.metadata = client.get()
+				while (byteBuffer.hasRemaining()) {
+					channel.write(byteBuffer);
+				}
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Gets a future for metadata. Concurrent callers share a same future meaning
+		 * only one request is made and metadata gets published via future once
+		 * loaded. Failed future is replaced on a next call so that loading can be
+		 * retried.
+		 */
+		private CompletableFuture<Metadata> loadMetadata() {
+			while (true) {
+				CompletableFuture<Metadata> current = metadata.get();
+				if (current != null && !current.isCompletedExceptionally()) {
+					return current;
+				}
+				CompletableFuture<Metadata> next = new CompletableFuture<>();
+				if (metadata.compareAndSet(current, next)) {
+					fetchMetadata()
+						.switchIfEmpty(Mono.error(() -> new IllegalStateException("No metadata received from " + baseUrl)))
+						.subscribe(next::complete, next::completeExceptionally);
+					return next;
+				}
+			}
+		}
+
+		private Mono<Metadata> fetchMetadata() {
+			if (metadataCache == null) {
+				return client.get()
+					.accept(INITIALIZER_MEDIA_TYPE)
+					.retrieve()
+					.bodyToMono(Metadata.class);
+			}
+			// revalidate cached document with a conditional request so that
+			// unchanged metadata is not downloaded again
+			Optional<MetadataCache.Entry> cached = metadataCache.read(baseUrl);
+			return client.get()
 				.accept(INITIALIZER_MEDIA_TYPE)
-				.retrieve()
-				.toEntity(Metadata.class).block().getBody();
+				.headers(headers -> cached.ifPresent(entry -> {
+					if (entry.getEtag() != null) {
+						headers.setIfNoneMatch(entry.getEtag());
+					}
+					if (entry.getLastModified() != null) {
+						headers.set(HttpHeaders.IF_MODIFIED_SINCE, entry.getLastModified());
+					}
+				}))
+				.exchangeToMono(response -> {
+					if (response.statusCode() == HttpStatus.NOT_MODIFIED && cached.isPresent()) {
+						log.debug("Metadata for {} not modified, using cached copy", baseUrl);
+						return response.releaseBody().then(Mono.fromCallable(() -> readMetadata(cached.get())));
+					}
+					if (response.statusCode().is2xxSuccessful()) {
+						HttpHeaders headers = response.headers().asHttpHeaders();
+						return response.bodyToMono(byte[].class)
+							.map(body -> {
+								MetadataCache.Entry entry = new MetadataCache.Entry(body, headers.getETag(),
+										headers.getFirst(HttpHeaders.LAST_MODIFIED));
+								Metadata metadata = readMetadata(entry);
+								metadataCache.write(baseUrl, entry);
+								return metadata;
+							});
+					}
+					return response.createException().flatMap(Mono::error);
+				});
+		}
+
+		/**
+		 * Gets a metadata of a cache entry. Parsed metadata is kept with an entry
+		 * so that a document which was not modified is not parsed again.
+		 */
+		private Metadata readMetadata(MetadataCache.Entry entry) {
+			Metadata metadata = entry.getMetadata();
+			if (metadata == null) {
+				metadata = readMetadata(entry.getBody());
+				entry.setMetadata(metadata);
+			}
+			metadataVersion = DigestUtils.md5DigestAsHex(entry.getBody());
+			return metadata;
+		}
+
+		private Metadata readMetadata(byte[] body) {
+			try {
+				return objectMapper.readValue(body, Metadata.class);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Client generating projects locally from a metadata snapshot without a
+	 * server. Snapshot is a same json document a server returns with dependency
+	 * coordinates added for dependencies which are meant to be used offline.
+	 */
+	public static class OfflineInitializrClient implements InitializrClient {
+
+		private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		private final Path metadataSnapshot;
+		private volatile Metadata metadata;
+		private volatile LocalProjectGenerator generator;
+
+		public OfflineInitializrClient(Path metadataSnapshot) {
+			this.metadataSnapshot = metadataSnapshot;
+		}
+
+		@Override
+		public void connect() {
+			getMetadata();
+		}
+
+		@Override
+		public Metadata getMetadata() {
+			if (metadata == null) {
+				synchronized (this) {
+					if (metadata == null) {
+						try {
+							Metadata loaded = objectMapper.readValue(metadataSnapshot.toFile(), Metadata.class);
+							generator = new LocalProjectGenerator(loaded);
+							metadata = loaded;
+						}
+						catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					}
+				}
+			}
+			return metadata;
+		}
+
+		@Override
+		public String info() {
+			return "offline " + metadataSnapshot;
+		}
+
+		@Override
+		public void generate(ProjectRequest request, Path outputDirectory) {
+			getMetadata();
+			generator.generate(request, outputDirectory);
 		}
 	}
 }
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.spring.initializr.generator.buildsystem.DependencyScope;
+import io.spring.initializr.generator.buildsystem.MavenRepository;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuild;
+import io.spring.initializr.generator.buildsystem.maven.MavenBuildWriter;
+import io.spring.initializr.generator.io.IndentingWriter;
+import io.spring.initializr.generator.io.IndentingWriterFactory;
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.generator.version.VersionReference;
+
+import org.springframework.experimental.initializrcli.client.model.Dependency;
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.experimental.initializrcli.support.InitializrUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Generates a project locally without a server. Build file is written with a
+ * build model and writer from {@code initializr-generator} and a minimal set
+ * of sources is added similarly to what a server would generate. Only maven
+ * projects with java language are supported as dependency coordinates and
+ * other build conventions are not part of a metadata.
+ *
+ * @author Janne Valkealahti
+ */
+public class LocalProjectGenerator {
+
+	private final static String MAVEN_PROJECT = "maven-project";
+	private final static String JAVA = "java";
+	private final static String BOOT_GROUP_ID = "org.springframework.boot";
+	private final static String RELEASE = "RELEASE";
+	private final static String MILESTONES_ID = "spring-milestones";
+	private final static String MILESTONES_URL = "https://repo.spring.io/milestone";
+	private final static String SNAPSHOTS_ID = "spring-snapshots";
+	private final static String SNAPSHOTS_URL = "https://repo.spring.io/snapshot";
+	private final Metadata metadata;
+	private final Map<String, Dependency> dependencies;
+
+	public LocalProjectGenerator(Metadata metadata) {
+		this.metadata = metadata;
+		this.dependencies = metadata.getDependencies().getValues().stream()
+				.flatMap(category -> category.getValues().stream())
+				.collect(Collectors.toMap(Dependency::getId, Function.identity(), (d1, d2) -> d1));
+	}
+
+	/**
+	 * Generate a project into a given directory.
+	 *
+	 * @param request the project request
+	 * @param outputDirectory the output directory
+	 */
+	public void generate(ProjectRequest request, Path outputDirectory) {
+		String type = valueOrDefault(request.getType(), metadata.getType().getDefault());
+		String language = valueOrDefault(request.getLanguage(), metadata.getLanguage().getDefault());
+		if (!MAVEN_PROJECT.equals(type) || !JAVA.equals(language)) {
+			throw new IllegalArgumentException(String.format(
+					"Only %s with %s is supported offline, was %s with %s", MAVEN_PROJECT, JAVA, type, language));
+		}
+		String packageName = valueOrDefault(request.getPackageName(), metadata.getPackageName().getDefault());
+		String packaging = valueOrDefault(request.getPackaging(), metadata.getPackaging().getDefault());
+		String applicationName = applicationName(valueOrDefault(request.getName(), metadata.getName().getDefault()));
+		MavenBuild build = build(request, packaging);
+		try {
+			Files.createDirectories(outputDirectory);
+			Path pom = outputDirectory.resolve("pom.xml");
+			try (IndentingWriter writer = IndentingWriterFactory.withDefaultSettings()
+					.createIndentingWriter("maven", Files.newBufferedWriter(pom))) {
+				new MavenBuildWriter().writeTo(writer, build);
+			}
+			Path mainPackage = outputDirectory.resolve("src/main/java").resolve(packageName.replace('.', '/'));
+			writeLines(mainPackage.resolve(applicationName + ".java"),
+					"package " + packageName + ";",
+					"",
+					"import org.springframework.boot.SpringApplication;",
+					"import org.springframework.boot.autoconfigure.SpringBootApplication;",
+					"",
+					"@SpringBootApplication",
+					"public class " + applicationName + " {",
+					"",
+					"	public static void main(String[] args) {",
+					"		SpringApplication.run(" + applicationName + ".class, args);",
+					"	}",
+					"",
+					"}");
+			if ("war".equals(packaging)) {
+				writeLines(mainPackage.resolve("ServletInitializer.java"),
+						"package " + packageName + ";",
+						"",
+						"import org.springframework.boot.builder.SpringApplicationBuilder;",
+						"import org.springframework.boot.web.servlet.support.SpringBootServletInitializer;",
+						"",
+						"public class ServletInitializer extends SpringBootServletInitializer {",
+						"",
+						"	@Override",
+						"	protected SpringApplicationBuilder configure(SpringApplicationBuilder application) {",
+						"		return application.sources(" + applicationName + ".class);",
+						"	}",
+						"",
+						"}");
+			}
+			writeLines(outputDirectory.resolve("src/main/resources/application.properties"), "");
+			writeLines(outputDirectory.resolve("src/test/java").resolve(packageName.replace('.', '/'))
+					.resolve(applicationName + "Tests.java"),
+					"package " + packageName + ";",
+					"",
+					"import org.junit.jupiter.api.Test;",
+					"import org.springframework.boot.test.context.SpringBootTest;",
+					"",
+					"@SpringBootTest",
+					"class " + applicationName + "Tests {",
+					"",
+					"	@Test",
+					"	void contextLoads() {",
+					"	}",
+					"",
+					"}");
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private MavenBuild build(ProjectRequest request, String packaging) {
+		String bootVersion = valueOrDefault(request.getBootVersion(), metadata.getBootVersion().getDefaultversion());
+		MavenBuild build = new MavenBuild();
+		build.settings()
+				.parent(BOOT_GROUP_ID, "spring-boot-starter-parent", bootVersion)
+				.group(valueOrDefault(request.getGroupId(), metadata.getGroupId().getDefault()))
+				.artifact(valueOrDefault(request.getArtifactId(), metadata.getArtifactId().getDefault()))
+				.version(valueOrDefault(request.getVersion(), metadata.getVersion().getDefault()))
+				.name(valueOrDefault(request.getName(), metadata.getName().getDefault()))
+				.description(valueOrDefault(request.getDescription(), metadata.getDescription().getDefault()))
+				.packaging(packaging);
+		build.properties().property("java.version",
+				valueOrDefault(request.getJavaVersion(), metadata.getJavaVersion().getDefault()));
+		List<String> unknown = new ArrayList<>();
+		for (String id : request.getDependencies()) {
+			Dependency dependency = dependencies.get(id);
+			if (dependency == null || !StringUtils.hasText(dependency.getGroupId())
+					|| !StringUtils.hasText(dependency.getArtifactId())) {
+				unknown.add(id);
+				continue;
+			}
+			io.spring.initializr.generator.buildsystem.Dependency.Builder<?> builder =
+					io.spring.initializr.generator.buildsystem.Dependency
+						.withCoordinates(dependency.getGroupId(), dependency.getArtifactId())
+						.scope(scope(dependency.getScope()));
+			if (StringUtils.hasText(dependency.getVersion())) {
+				builder.version(VersionReference.ofValue(dependency.getVersion()));
+			}
+			build.dependencies().add(id, builder);
+		}
+		if (!unknown.isEmpty()) {
+			throw new IllegalArgumentException("No coordinates for dependencies "
+					+ StringUtils.collectionToDelimitedString(unknown, ", ") + " in offline metadata");
+		}
+		if (build.dependencies().isEmpty()) {
+			build.dependencies().add("boot-starter", BOOT_GROUP_ID, "spring-boot-starter", DependencyScope.COMPILE);
+		}
+		if ("war".equals(packaging)) {
+			build.dependencies().add("tomcat", BOOT_GROUP_ID, "spring-boot-starter-tomcat",
+					DependencyScope.PROVIDED_RUNTIME);
+		}
+		build.dependencies().add("test", BOOT_GROUP_ID, "spring-boot-starter-test", DependencyScope.TEST_COMPILE);
+		build.plugins().add(BOOT_GROUP_ID, "spring-boot-maven-plugin");
+		addRepositories(build, bootVersion);
+		return build;
+	}
+
+	/**
+	 * Adds spring repositories for a boot version which is not a release same way
+	 * as initializr does, milestones for all and snapshots for snapshot versions.
+	 */
+	private static void addRepositories(MavenBuild build, String bootVersion) {
+		Version version = InitializrUtils.parseVersion(bootVersion);
+		if (version == null || version.getQualifier() == null) {
+			return;
+		}
+		String qualifier = version.getQualifier().getId();
+		if (RELEASE.equals(qualifier)) {
+			return;
+		}
+		List<MavenRepository> repositories = new ArrayList<>();
+		repositories.add(MavenRepository.withIdAndUrl(MILESTONES_ID, MILESTONES_URL)
+				.name("Spring Milestones").build());
+		if (qualifier.contains("SNAPSHOT")) {
+			repositories.add(MavenRepository.withIdAndUrl(SNAPSHOTS_ID, SNAPSHOTS_URL)
+					.name("Spring Snapshots").snapshotsEnabled(true).build());
+		}
+		for (MavenRepository repository : repositories) {
+			build.repositories().add(repository);
+			build.pluginRepositories().add(repository);
+		}
+	}
+
+	/**
+	 * Gets a dependency scope using same names as initializr configuration.
+	 */
+	private static DependencyScope scope(String scope) {
+		if (!StringUtils.hasText(scope)) {
+			return DependencyScope.COMPILE;
+		}
+		switch (scope) {
+			case "runtime":
+				return DependencyScope.RUNTIME;
+			case "compileOnly":
+				return DependencyScope.COMPILE_ONLY;
+			case "provided":
+				return DependencyScope.PROVIDED_RUNTIME;
+			case "annotationProcessor":
+				return DependencyScope.ANNOTATION_PROCESSOR;
+			case "test":
+				return DependencyScope.TEST_COMPILE;
+			default:
+				return DependencyScope.COMPILE;
+		}
+	}
+
+	/**
+	 * Gets an application class name from a project name, i.e. {@code demo}
+	 * becomes {@code DemoApplication}.
+	 */
+	static String applicationName(String name) {
+		StringBuilder buf = new StringBuilder();
+		boolean upper = true;
+		for (char c : (name != null ? name : "").toCharArray()) {
+			if (Character.isJavaIdentifierPart(c) && c != '$') {
+				buf.append(upper ? Character.toUpperCase(c) : c);
+				upper = false;
+			}
+			else {
+				upper = true;
+			}
+		}
+		if (buf.length() == 0 || !Character.isJavaIdentifierStart(buf.charAt(0))) {
+			return "Application";
+		}
+		return buf.append("Application").toString();
+	}
+
+	private static String valueOrDefault(String value, String defaultValue) {
+		return StringUtils.hasText(value) ? value : defaultValue;
+	}
+
+	private static void writeLines(Path file, String... lines) throws IOException {
+		Files.createDirectories(file.getParent());
+		try (Writer writer = Files.newBufferedWriter(file)) {
+			for (String line : lines) {
+				writer.write(line);
+				writer.write(System.lineSeparator());
+			}
+		}
+	}
+}
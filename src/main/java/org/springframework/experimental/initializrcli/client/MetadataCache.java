@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Disk cache for raw initializr metadata documents keyed by a base url. Along
+ * with a document, validators returned from a server are kept so that a cached
+ * document can be revalidated with a conditional request. Entries are also
+ * kept in memory, meaning clients sharing a cache instance can keep a parsed
+ * metadata with an entry and use it as is when a document was not modified.
+ *
+ * @author Janne Valkealahti
+ */
+public class MetadataCache {
+
+	private final static Logger log = LoggerFactory.getLogger(MetadataCache.class);
+	private final static String KEY_ETAG = "etag";
+	private final static String KEY_LAST_MODIFIED = "lastModified";
+	private final Path directory;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	public MetadataCache(Path directory) {
+		Assert.notNull(directory, "directory must be set");
+		this.directory = directory;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Read a cached metadata entry for a given base url.
+	 *
+	 * @param baseUrl the base url
+	 * @return cached entry or empty if nothing is cached
+	 */
+	public Optional<Entry> read(String baseUrl) {
+		Entry entry = entries.get(baseUrl);
+		if (entry != null) {
+			return Optional.of(entry);
+		}
+		Path bodyFile = bodyFile(baseUrl);
+		Path validatorsFile = validatorsFile(baseUrl);
+		if (!Files.isRegularFile(bodyFile) || !Files.isRegularFile(validatorsFile)) {
+			return Optional.empty();
+		}
+		try (InputStream in = Files.newInputStream(validatorsFile)) {
+			Properties validators = new Properties();
+			validators.load(in);
+			byte[] body = Files.readAllBytes(bodyFile);
+			entry = new Entry(body, validators.getProperty(KEY_ETAG), validators.getProperty(KEY_LAST_MODIFIED));
+			entries.put(baseUrl, entry);
+			return Optional.of(entry);
+		}
+		catch (IOException e) {
+			log.debug("Unable to read cached metadata for {}", baseUrl, e);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Write a metadata entry for a given base url. Cache is considered to be best
+	 * effort so failures are only logged.
+	 *
+	 * @param baseUrl the base url
+	 * @param entry the entry
+	 */
+	public void write(String baseUrl, Entry entry) {
+		if (entry.getEtag() == null && entry.getLastModified() == null) {
+			// nothing to revalidate with, no point to keep it
+			return;
+		}
+		entries.put(baseUrl, entry);
+		try {
+			Files.createDirectories(directory);
+			Properties validators = new Properties();
+			if (entry.getEtag() != null) {
+				validators.setProperty(KEY_ETAG, entry.getEtag());
+			}
+			if (entry.getLastModified() != null) {
+				validators.setProperty(KEY_LAST_MODIFIED, entry.getLastModified());
+			}
+			Path bodyTmp = Files.createTempFile(directory, "metadata", null);
+			Files.write(bodyTmp, entry.getBody());
+			Path validatorsTmp = Files.createTempFile(directory, "metadata", null);
+			try (OutputStream out = Files.newOutputStream(validatorsTmp)) {
+				validators.store(out, baseUrl);
+			}
+			Files.move(bodyTmp, bodyFile(baseUrl), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			Files.move(validatorsTmp, validatorsFile(baseUrl), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			log.debug("Unable to write cached metadata for {}", baseUrl, e);
+		}
+	}
+
+	private Path bodyFile(String baseUrl) {
+		return directory.resolve("metadata-" + key(baseUrl) + ".json");
+	}
+
+	private Path validatorsFile(String baseUrl) {
+		return directory.resolve("metadata-" + key(baseUrl) + ".properties");
+	}
+
+	private static String key(String baseUrl) {
+		return DigestUtils.md5DigestAsHex(baseUrl.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Cached metadata document with its validators.
+	 */
+	public static class Entry {
+
+		private final byte[] body;
+		private final String etag;
+		private final String lastModified;
+		private volatile Metadata metadata;
+
+		public Entry(byte[] body, String etag, String lastModified) {
+			this.body = body;
+			this.etag = etag;
+			this.lastModified = lastModified;
+		}
+
+		public byte[] getBody() {
+			return body;
+		}
+
+		public String getEtag() {
+			return etag;
+		}
+
+		public String getLastModified() {
+			return lastModified;
+		}
+
+		/**
+		 * Gets a metadata parsed from a body if it has been set.
+		 *
+		 * @return the metadata or {@code null}
+		 */
+		public Metadata getMetadata() {
+			return metadata;
+		}
+
+		public void setMetadata(Metadata metadata) {
+			this.metadata = metadata;
+		}
+	}
+}
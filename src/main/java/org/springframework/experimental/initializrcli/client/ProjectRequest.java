@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.client;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Request to generate a project. Field names match parameters used with
+ * initializr project generation endpoints.
+ *
+ * @author Janne Valkealahti
+ */
+public class ProjectRequest {
+
+	private String type;
+	private String language;
+	private String bootVersion;
+	private List<String> dependencies = new ArrayList<>();
+	private String version;
+	private String groupId;
+	private String artifactId;
+	private String name;
+	private String description;
+	private String packageName;
+	private String packaging;
+	private String javaVersion;
+
+	public ProjectRequest() {
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	public String getLanguage() {
+		return language;
+	}
+
+	public void setLanguage(String language) {
+		this.language = language;
+	}
+
+	public String getBootVersion() {
+		return bootVersion;
+	}
+
+	public void setBootVersion(String bootVersion) {
+		this.bootVersion = bootVersion;
+	}
+
+	public List<String> getDependencies() {
+		return dependencies;
+	}
+
+	public void setDependencies(List<String> dependencies) {
+		this.dependencies = dependencies != null ? dependencies : new ArrayList<>();
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public void setVersion(String version) {
+		this.version = version;
+	}
+
+	public String getGroupId() {
+		return groupId;
+	}
+
+	public void setGroupId(String groupId) {
+		this.groupId = groupId;
+	}
+
+	public String getArtifactId() {
+		return artifactId;
+	}
+
+	public void setArtifactId(String artifactId) {
+		this.artifactId = artifactId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	public String getPackageName() {
+		return packageName;
+	}
+
+	public void setPackageName(String packageName) {
+		this.packageName = packageName;
+	}
+
+	public String getPackaging() {
+		return packaging;
+	}
+
+	public void setPackaging(String packaging) {
+		this.packaging = packaging;
+	}
+
+	public String getJavaVersion() {
+		return javaVersion;
+	}
+
+	public void setJavaVersion(String javaVersion) {
+		this.javaVersion = javaVersion;
+	}
+
+	/**
+	 * Gets request parameters as a map. Parameters without a value are left out.
+	 *
+	 * @return the request parameters
+	 */
+	public Map<String, String> toParameters() {
+		Map<String, String> parameters = new LinkedHashMap<>();
+		addParameter(parameters, "type", type);
+		if (!ObjectUtils.isEmpty(dependencies)) {
+			addParameter(parameters, "dependencies", StringUtils.collectionToCommaDelimitedString(dependencies));
+		}
+		addParameter(parameters, "packaging", packaging);
+		addParameter(parameters, "javaVersion", javaVersion);
+		addParameter(parameters, "language", language);
+		addParameter(parameters, "bootVersion", bootVersion);
+		addParameter(parameters, "version", version);
+		addParameter(parameters, "groupId", groupId);
+		addParameter(parameters, "artifactId", artifactId);
+		addParameter(parameters, "name", name);
+		addParameter(parameters, "description", description);
+		addParameter(parameters, "packageName", packageName);
+		return parameters;
+	}
+
+	private static void addParameter(Map<String, String> parameters, String name, String value) {
+		if (value != null) {
+			parameters.put(name, value);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ProjectRequest " + toParameters();
+	}
+}
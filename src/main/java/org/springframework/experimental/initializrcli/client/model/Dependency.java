@@ -21,6 +21,16 @@ public class Dependency extends IdName {
 
 	private String versionRange;
 
+	// coordinates are not part of a server metadata and are only
+	// expected to be present in an offline metadata snapshot
+	private String groupId;
+
+	private String artifactId;
+
+	private String version;
+
+	private String scope;
+
 	public Dependency() {
 	}
 
@@ -39,4 +49,36 @@ public class Dependency extends IdName {
 	public void setVersionRange(String versionRange) {
 		this.versionRange = versionRange;
 	}
+
+	public String getGroupId() {
+		return groupId;
+	}
+
+	public void setGroupId(String groupId) {
+		this.groupId = groupId;
+	}
+
+	public String getArtifactId() {
+		return artifactId;
+	}
+
+	public void setArtifactId(String artifactId) {
+		this.artifactId = artifactId;
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public void setVersion(String version) {
+		this.version = version;
+	}
+
+	public String getScope() {
+		return scope;
+	}
+
+	public void setScope(String scope) {
+		this.scope = scope;
+	}
 }
@@ -15,17 +15,35 @@
  */
 package org.springframework.experimental.initializrcli.command;
 
-import org.springframework.context.event.EventListener;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.experimental.initializrcli.client.InitializrClient;
-import org.springframework.experimental.initializrcli.support.InitializrClientUpdatedEvent;
+import org.springframework.experimental.initializrcli.support.MetadataIndex;
+import org.springframework.experimental.initializrcli.support.TargetHolder;
 import org.springframework.shell.standard.AbstractShellComponent;
 
 public abstract class AbstractInitializrCommands extends AbstractShellComponent {
 
-	protected InitializrClient client;
+	@Autowired
+	private TargetHolder targetHolder;
 
-	@EventListener
-	public void handle(InitializrClientUpdatedEvent event) {
-		client = event.getClient();
+	/**
+	 * Gets a client. Waits for a connection which may still be in progress when
+	 * command is run right after a startup.
+	 *
+	 * @return the client
+	 */
+	protected InitializrClient getClient() {
+		return targetHolder.getClient();
+	}
+
+	/**
+	 * Gets a metadata index for a client which is shared as long as its
+	 * metadata doesn't change.
+	 *
+	 * @param client the client
+	 * @return the metadata index
+	 */
+	protected MetadataIndex getMetadataIndex(InitializrClient client) {
+		return targetHolder.getMetadataIndex(client);
 	}
 }
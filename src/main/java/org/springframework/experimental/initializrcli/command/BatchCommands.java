@@ -0,0 +1,336 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.command;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.yaml.snakeyaml.Yaml;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.experimental.initializrcli.client.InitializrClient;
+import org.springframework.experimental.initializrcli.client.ProjectRequest;
+import org.springframework.experimental.initializrcli.support.MetadataIndex;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+import org.springframework.shell.table.ArrayTableModel;
+import org.springframework.shell.table.BorderStyle;
+import org.springframework.shell.table.Table;
+import org.springframework.shell.table.TableBuilder;
+import org.springframework.shell.table.TableModel;
+import org.springframework.util.StringUtils;
+
+@ShellComponent
+public class BatchCommands extends AbstractInitializrCommands {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	@ShellMethod(key = "init-batch", value = "Initialize projects from a manifest")
+	public Table initBatch(
+		@ShellOption(help = "Path to a yaml or json manifest") String manifest,
+		@ShellOption(help = "Maximum number of projects generated at a same time", defaultValue = "4") int parallelism,
+		@ShellOption(help = "Timeout in seconds for a single project", defaultValue = "60") long timeout
+	) {
+		Path manifestPath = Path.of(manifest).toAbsolutePath().normalize();
+		List<ProjectSpec> specs = readManifest(manifestPath);
+
+		// metadata is loaded once and shared by all projects, as is a client
+		// with its connection pool
+		InitializrClient client = getClient();
+		MetadataIndex index = getMetadataIndex(client);
+		Path baseDirectory = manifestPath.getParent();
+		// projects sharing a path would race on a same directory
+		Set<Path> duplicates = specs.stream()
+				.filter(spec -> StringUtils.hasText(spec.getPath()))
+				.collect(Collectors.groupingBy(spec -> baseDirectory.resolve(spec.getPath()).normalize(),
+						Collectors.counting()))
+				.entrySet().stream()
+				.filter(e -> e.getValue() > 1)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+
+		// generations block their threads and a cancelled one keeps its thread
+		// until it has stopped, so a bounded scheduler keeps a parallelism
+		// bound also when projects time out
+		int threads = Math.max(1, parallelism);
+		Scheduler scheduler = Schedulers.newBoundedElastic(threads, Integer.MAX_VALUE, "init-batch");
+		List<BatchResult> results;
+		try {
+			results = Flux.fromIterable(specs)
+					.flatMap(spec -> generate(client, index, baseDirectory, duplicates, spec,
+							Duration.ofSeconds(timeout), scheduler), threads)
+					.collectList()
+					.block();
+		}
+		finally {
+			scheduler.dispose();
+		}
+		results.sort(Comparator.comparing(r -> r.path));
+
+		Stream<String[]> header = Stream.<String[]>of(new String[] { "Path", "Status", "Time (ms)", "Message" });
+		Stream<String[]> rows = results.stream()
+				.map(r -> new String[] { r.path, r.error == null ? "OK" : "FAILED", Long.toString(r.millis),
+						r.error == null ? "" : r.error });
+		String[][] data = Stream.concat(header, rows).toArray(String[][]::new);
+
+		TableModel model = new ArrayTableModel(data);
+		TableBuilder tableBuilder = new TableBuilder(model);
+		return tableBuilder.addFullBorder(BorderStyle.fancy_light).build();
+	}
+
+	private Mono<BatchResult> generate(InitializrClient client, MetadataIndex index, Path baseDirectory,
+			Set<Path> duplicates, ProjectSpec spec, Duration timeout, Scheduler scheduler) {
+		String path = spec.getPath() != null ? spec.getPath() : "";
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return Mono.defer(() -> {
+						ProjectRequest request = spec.toRequest();
+						index.applyDefaults(request);
+						List<String> errors = index.validate(request);
+						if (!errors.isEmpty()) {
+							throw new IllegalArgumentException(StringUtils.collectionToDelimitedString(errors, ", "));
+						}
+						if (!StringUtils.hasText(spec.getPath())) {
+							throw new IllegalArgumentException("Path is not set");
+						}
+						Path outPath = baseDirectory.resolve(spec.getPath()).normalize();
+						if (!outPath.startsWith(baseDirectory)) {
+							throw new IllegalArgumentException(
+									String.format("Path %s is outside of %s", spec.getPath(), baseDirectory));
+						}
+						if (duplicates.contains(outPath)) {
+							throw new IllegalArgumentException(
+									String.format("Path %s is used by more than one project", spec.getPath()));
+						}
+						if (Files.exists(outPath)) {
+							throw new IllegalStateException(
+									String.format("Can't create path %s, it already exists", outPath.toAbsolutePath()));
+						}
+						// a timeout cancels a generation which then removes a
+						// partially written project
+						return client.generateAsync(request, outPath);
+					})
+					.subscribeOn(scheduler)
+					.timeout(timeout)
+					.then(Mono.fromSupplier(() -> new BatchResult(path, elapsed(start), null)))
+					.onErrorResume(e -> Mono.just(new BatchResult(path, elapsed(start), message(e, timeout))));
+		});
+	}
+
+	private List<ProjectSpec> readManifest(Path manifest) {
+		Object loaded;
+		try (Reader reader = Files.newBufferedReader(manifest)) {
+			// json is a subset of yaml so both are read the same way
+			loaded = new Yaml().load(reader);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (loaded instanceof Map) {
+			loaded = ((Map<?, ?>) loaded).get("projects");
+		}
+		if (!(loaded instanceof List)) {
+			throw new IllegalArgumentException(
+					String.format("Manifest %s should contain a list of projects or a 'projects' list", manifest));
+		}
+		return ((List<?>) loaded).stream()
+				.map(o -> objectMapper.convertValue(o, ProjectSpec.class))
+				.collect(Collectors.toList());
+	}
+
+	private static long elapsed(long start) {
+		return Duration.ofNanos(System.nanoTime() - start).toMillis();
+	}
+
+	private static String message(Throwable e, Duration timeout) {
+		if (e instanceof TimeoutException) {
+			return String.format("Timed out after %ss", timeout.getSeconds());
+		}
+		return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+	}
+
+	private static class BatchResult {
+
+		final String path;
+		final long millis;
+		final String error;
+
+		BatchResult(String path, long millis, String error) {
+			this.path = path;
+			this.millis = millis;
+			this.error = error;
+		}
+	}
+
+	/**
+	 * Single project in a manifest. Fields match options of {@code init} command.
+	 */
+	public static class ProjectSpec {
+
+		private String path;
+		private String project;
+		private String language;
+		private String bootVersion;
+		private String version;
+		private String group;
+		private String artifact;
+		private String name;
+		private String description;
+		private String packageName;
+		private List<String> dependencies = new ArrayList<>();
+		private String packaging;
+		private String javaVersion;
+
+		public String getPath() {
+			return path;
+		}
+
+		public void setPath(String path) {
+			this.path = path;
+		}
+
+		public String getProject() {
+			return project;
+		}
+
+		public void setProject(String project) {
+			this.project = project;
+		}
+
+		public String getLanguage() {
+			return language;
+		}
+
+		public void setLanguage(String language) {
+			this.language = language;
+		}
+
+		public String getBootVersion() {
+			return bootVersion;
+		}
+
+		public void setBootVersion(String bootVersion) {
+			this.bootVersion = bootVersion;
+		}
+
+		public String getVersion() {
+			return version;
+		}
+
+		public void setVersion(String version) {
+			this.version = version;
+		}
+
+		public String getGroup() {
+			return group;
+		}
+
+		public void setGroup(String group) {
+			this.group = group;
+		}
+
+		public String getArtifact() {
+			return artifact;
+		}
+
+		public void setArtifact(String artifact) {
+			this.artifact = artifact;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public void setDescription(String description) {
+			this.description = description;
+		}
+
+		public String getPackageName() {
+			return packageName;
+		}
+
+		public void setPackageName(String packageName) {
+			this.packageName = packageName;
+		}
+
+		public List<String> getDependencies() {
+			return dependencies;
+		}
+
+		public void setDependencies(List<String> dependencies) {
+			this.dependencies = dependencies;
+		}
+
+		public String getPackaging() {
+			return packaging;
+		}
+
+		public void setPackaging(String packaging) {
+			this.packaging = packaging;
+		}
+
+		public String getJavaVersion() {
+			return javaVersion;
+		}
+
+		public void setJavaVersion(String javaVersion) {
+			this.javaVersion = javaVersion;
+		}
+
+		ProjectRequest toRequest() {
+			ProjectRequest request = new ProjectRequest();
+			request.setType(project);
+			request.setLanguage(language);
+			request.setBootVersion(bootVersion);
+			request.setVersion(version);
+			request.setGroupId(group);
+			request.setArtifactId(artifact);
+			request.setName(name);
+			request.setDescription(description);
+			request.setPackageName(packageName);
+			request.setDependencies(dependencies);
+			request.setPackaging(packaging);
+			request.setJavaVersion(javaVersion);
+			return request;
+		}
+	}
+}
@@ -18,33 +18,37 @@ package org.springframework.experimental.initializrcli.command;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
-import org.rauschig.jarchivelib.Archiver;
-import org.rauschig.jarchivelib.ArchiverFactory;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.experimental.initializrcli.client.InitializrClient;
+import org.springframework.experimental.initializrcli.client.ProjectRequest;
 import org.springframework.experimental.initializrcli.client.model.Metadata;
 import org.springframework.experimental.initializrcli.component.context.ComponentContext;
-import org.springframework.experimental.initializrcli.component.support.SelectorItem;
-import org.springframework.experimental.initializrcli.support.InitializrUtils;
+import org.springframework.experimental.initializrcli.component.support.Matcher;
+import org.springframework.experimental.initializrcli.support.InitializrClientUpdatedEvent;
+import org.springframework.experimental.initializrcli.support.MetadataIndex;
 import org.springframework.experimental.initializrcli.wizard.ComponentFlow;
 import org.springframework.experimental.initializrcli.wizard.ComponentFlow.ComponentFlowResult;
 import org.springframework.experimental.initializrcli.wizard.ComponentFlow.ResultMode;
-import org.springframework.experimental.initializrcli.wizard.ComponentFlow.SelectItem;
 import org.springframework.experimental.initializrcli.wizard.Wizard;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellOption;
 import org.springframework.shell.style.TemplateExecutor;
-import org.springframework.util.ObjectUtils;
+import org.springframework.shell.style.ThemeResolver;
+import org.springframework.util.StringUtils;
 
 @ShellComponent
-public class GenerateCommands extends AbstractInitializrCommands {
+public class GenerateCommands extends AbstractInitializrCommands implements DisposableBean {
 
 	private final static String PATH_NAME = "Path";
 	private final static String PATH_ID = "path";
@@ -73,26 +77,23 @@ public class GenerateCommands extends AbstractInitializrCommands {
 	private final static String JAVA_VERSION_NAME = "Java";
 	private final static String JAVA_VERSION_ID = "javaVersion";
 
-	private final static Comparator<SelectorItem<String>> NAME_COMPARATOR = (o1, o2) -> {
-		return o1.getName().compareTo(o2.getName());
-	};
-
-	private final static Comparator<SelectorItem<String>> JAVA_VERSION_COMPARATOR = (o1, o2) -> {
-		try {
-			Integer oo1 = Integer.valueOf(o1.getName());
-			Integer oo2 = Integer.valueOf(o2.getName());
-			return oo1.compareTo(oo2);
-		} catch (Exception e) {
-		}
-		return NAME_COMPARATOR.compare(o1, o2);
-	};
-
 	@Autowired
 	private ResourceLoader resourceLoader;
 
 	@Autowired
 	private TemplateExecutor templateExecutor;
 
+	@Autowired
+	private ThemeResolver themeResolver;
+
+	private volatile CompletableFuture<InitWizardView> view;
+
+	private final ExecutorService viewExecutor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "init-wizard-view");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	@ShellMethod(key = "init", value = "Initialize project")
 	public String init(
 		@ShellOption(help = "Path to extract", defaultValue = ShellOption.NULL) String path,
@@ -107,17 +108,42 @@ public class GenerateCommands extends AbstractInitializrCommands {
 		@ShellOption(help = "Package Name", defaultValue = ShellOption.NULL) String packageName,
 		@ShellOption(help = "Dependencies", defaultValue = ShellOption.NULL) List<String> dependencies,
 		@ShellOption(help = "Packaging", defaultValue = ShellOption.NULL) String packaging,
-		@ShellOption(help = "Java", defaultValue = ShellOption.NULL) String javaVersion
+		@ShellOption(help = "Java", defaultValue = ShellOption.NULL) String javaVersion,
+		@ShellOption(help = "Use defaults for missing options instead of asking", defaultValue = "false") boolean nonInteractive
 	) {
+		InitializrClient client = getClient();
 		Metadata metadata = client.getMetadata();
+		MetadataIndex index = getMetadataIndex(client);
 
-		Map<String, String> projectSelectItems = metadata.getType().getValues().stream()
-				.filter(v -> ObjectUtils.nullSafeEquals(v.getTags().get("format"), "project"))
-				.collect(Collectors.toMap(v -> v.getName(), v -> v.getId()));
-		Map<String, String> languageSelectItems = metadata.getLanguage().getValues().stream()
-				.collect(Collectors.toMap(v -> v.getName(), v -> v.getId()));
-		Map<String, String> bootSelectItems = metadata.getBootVersion().getValues().stream()
-				.collect(Collectors.toMap(v -> v.getName(), v -> v.getId()));
+		if (nonInteractive || Stream.of(path, project, language, bootVersion, version, group, artifact, name,
+				description, packageName, dependencies, packaging, javaVersion).allMatch(Objects::nonNull)) {
+			// nothing to ask so go directly to a server without components and
+			// without building a wizard view
+			ProjectRequest request = new ProjectRequest();
+			request.setType(project);
+			request.setLanguage(language);
+			request.setBootVersion(bootVersion);
+			request.setVersion(version);
+			request.setGroupId(group);
+			request.setArtifactId(artifact);
+			request.setName(name);
+			request.setDescription(description);
+			request.setPackageName(packageName);
+			request.setDependencies(dependencies);
+			request.setPackaging(packaging);
+			request.setJavaVersion(javaVersion);
+			index.applyDefaults(request);
+			List<String> errors = index.validate(request);
+			if (!errors.isEmpty()) {
+				throw new IllegalArgumentException(StringUtils.collectionToDelimitedString(errors, ", "));
+			}
+			if (!StringUtils.hasText(path)) {
+				throw new IllegalArgumentException("Path must be set in non-interactive mode");
+			}
+			return generate(client, request, Path.of(path));
+		}
+
+		InitWizardView view = getView(index);
 		String defaultVersion = metadata.getVersion().getDefault();
 		String defaultGroupId = metadata.getGroupId().getDefault();
 		String defaultArtifact = metadata.getArtifactId().getDefault();
@@ -125,14 +151,11 @@ public class GenerateCommands extends AbstractInitializrCommands {
 		String defaultDescription = metadata.getDescription().getDefault();
 		String defaultPackageName = metadata.getPackageName().getDefault();
 		dependencies = dependencies == null ? Collections.emptyList() : dependencies;
-		Map<String, String> packagingSelectItems = metadata.getPackaging().getValues().stream()
-				.collect(Collectors.toMap(v -> v.getName(), v -> v.getId()));
-		Map<String, String> javaVersionSelectItems = metadata.getJavaVersion().getValues().stream()
-				.collect(Collectors.toMap(v -> v.getName(), v -> v.getId()));
 
 		Wizard<ComponentFlowResult> wizard = ComponentFlow.builder(getTerminal())
 				.resourceLoader(resourceLoader)
 				.templateExecutor(templateExecutor)
+				.themeResolver(themeResolver)
 				.withPathInput(PATH_ID)
 					.name(PATH_NAME)
 					.resultValue(path)
@@ -142,22 +165,19 @@ public class GenerateCommands extends AbstractInitializrCommands {
 					.name(PROJECT_NAME)
 					.resultValue(project)
 					.resultMode(ResultMode.ACCEPT)
-					.selectItems(projectSelectItems)
-					.sort(NAME_COMPARATOR)
+					.selectorItems(view.getProjects())
 					.and()
 				.withSingleItemSelector(LANGUAGE_ID)
 					.name(LANGUAGE_NAME)
 					.resultValue(language)
 					.resultMode(ResultMode.ACCEPT)
-					.selectItems(languageSelectItems)
-					.sort(NAME_COMPARATOR)
+					.selectorItems(view.getLanguages())
 					.and()
 				.withSingleItemSelector(BOOT_VERSION_ID)
 					.name(BOOT_VERSION_NAME)
 					.resultValue(bootVersion)
 					.resultMode(ResultMode.ACCEPT)
-					.selectItems(bootSelectItems)
-					.sort(NAME_COMPARATOR.reversed())
+					.selectorItems(view.getBootVersions())
 					.and()
 				.withStringInput(VERSION_ID)
 					.name(VERSION_NAME)
@@ -199,33 +219,23 @@ public class GenerateCommands extends AbstractInitializrCommands {
 					.name(DEPENDENCIES_NAME)
 					.resultValues(dependencies)
 					.resultMode(ResultMode.ACCEPT)
-					.preHandler(context -> {
-						String bootVersionValue = context.get(BOOT_VERSION_ID);
-						List<SelectItem> dependenciesSelectItems = metadata.getDependencies().getValues().stream()
-								.flatMap(dc -> dc.getValues().stream())
-								.map(dep -> SelectItem.of(dep.getName(), dep.getId(), InitializrUtils.isDependencyCompatible(dep, bootVersionValue)))
-								.collect(Collectors.toList());
-						List<SelectorItem<String>> selectorItems = dependenciesSelectItems.stream()
-								.map(si -> SelectorItem.of(si.name(), si.item(), si.enabled()))
-								.collect(Collectors.toList());
-						context.setItems(selectorItems);
-					})
-					.sort(NAME_COMPARATOR)
+					// built in a background as soon as boot version is known
+					.selectorItemsProvider(values -> view.getDependencies((String) values.get(BOOT_VERSION_ID)),
+							BOOT_VERSION_ID)
+					.matcher(Matcher.fuzzy())
 					.max(7)
 					.and()
 				.withSingleItemSelector(PACKAGING_ID)
 					.name(PACKAGING_NAME)
 					.resultValue(packaging)
 					.resultMode(ResultMode.ACCEPT)
-					.selectItems(packagingSelectItems)
-					.sort(NAME_COMPARATOR)
+					.selectorItems(view.getPackagings())
 					.and()
 				.withSingleItemSelector(JAVA_VERSION_ID)
 					.name(JAVA_VERSION_NAME)
 					.resultValue(javaVersion)
 					.resultMode(ResultMode.ACCEPT)
-					.selectItems(javaVersionSelectItems)
-					.sort(JAVA_VERSION_COMPARATOR)
+					.selectorItems(view.getJavaVersions())
 					.and()
 				.build();
 
@@ -234,29 +244,60 @@ public class GenerateCommands extends AbstractInitializrCommands {
 
 		Path pathValue = result.getContext().get(PATH_ID);
 		List<String> dependenciesValue = result.getContext().get(DEPENDENCIES_ID);
-		Path generated = client.generate(context.get(PROJECT_ID, String.class),
-				context.get(LANGUAGE_ID, String.class),
-				context.get(BOOT_VERSION_ID, String.class),
-				dependenciesValue,
-				context.get(VERSION_ID, String.class),
-				context.get(GROUP_ID, String.class),
-				context.get(ARTIFACT_ID, String.class),
-				context.get(NAME_ID, String.class),
-				context.get(DESCRIPTION_ID, String.class),
-				context.get(PACKAGE_NAME_ID, String.class),
-				context.get(PACKAGING_ID, String.class),
-				context.get(JAVA_VERSION_ID, String.class));
+		ProjectRequest request = new ProjectRequest();
+		request.setType(context.get(PROJECT_ID, String.class));
+		request.setLanguage(context.get(LANGUAGE_ID, String.class));
+		request.setBootVersion(context.get(BOOT_VERSION_ID, String.class));
+		request.setDependencies(dependenciesValue);
+		request.setVersion(context.get(VERSION_ID, String.class));
+		request.setGroupId(context.get(GROUP_ID, String.class));
+		request.setArtifactId(context.get(ARTIFACT_ID, String.class));
+		request.setName(context.get(NAME_ID, String.class));
+		request.setDescription(context.get(DESCRIPTION_ID, String.class));
+		request.setPackageName(context.get(PACKAGE_NAME_ID, String.class));
+		request.setPackaging(context.get(PACKAGING_ID, String.class));
+		request.setJavaVersion(context.get(JAVA_VERSION_ID, String.class));
+
+		return generate(client, request, pathValue);
+	}
+
+	/**
+	 * Starts building a wizard view for a new metadata on a background so that a
+	 * next {@code init} doesn't need to build it and event is not held up.
+	 */
+	@EventListener
+	public void handle(InitializrClientUpdatedEvent event) {
+		InitializrClient client = event.getClient();
+		view = client != null
+				? CompletableFuture.supplyAsync(() -> InitWizardView.of(getMetadataIndex(client)), viewExecutor)
+				: null;
+	}
+
+	@Override
+	public void destroy() {
+		viewExecutor.shutdownNow();
+	}
+
+	private InitWizardView getView(MetadataIndex index) {
+		CompletableFuture<InitWizardView> future = view;
+		// wait for a view still being built, failed one is built again here
+		InitWizardView current = future != null ? future.exceptionally(e -> null).join() : null;
+		if (current == null || current.getIndex() != index) {
+			current = InitWizardView.of(index);
+			view = CompletableFuture.completedFuture(current);
+		}
+		return current;
+	}
 
-		File outFile = pathValue.toFile();
+	private String generate(InitializrClient client, ProjectRequest request, Path path) {
+		File outFile = path.toFile();
 		if (!outFile.mkdirs()) {
 			throw new RuntimeException(String.format("Can't create path %s", outFile.getAbsolutePath()));
 		}
-		Archiver archiver = ArchiverFactory.createArchiver("tar", "gz");
 		try {
-			archiver.extract(generated.toFile(), outFile);
+			client.generate(request, outFile.toPath());
 		} catch (Exception e) {
-			throw new RuntimeException(String.format("Extraction error from %s to %s",
-					generated.toFile().getAbsolutePath(), outFile.getAbsolutePath()), e);
+			throw new RuntimeException(String.format("Extraction error to %s", outFile.getAbsolutePath()), e);
 		}
 		return String.format("Extracted to %s", outFile.getAbsolutePath());
 	}
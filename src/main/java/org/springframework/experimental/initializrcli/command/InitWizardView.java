@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.command;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import io.spring.initializr.generator.version.Version;
+
+import org.springframework.experimental.initializrcli.client.model.Dependency;
+import org.springframework.experimental.initializrcli.client.model.IdName;
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.experimental.initializrcli.component.support.SelectorItem;
+import org.springframework.experimental.initializrcli.support.InitializrUtils;
+import org.springframework.experimental.initializrcli.support.MetadataIndex;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Selector items for an {@code init} wizard derived once from a
+ * {@link Metadata}. Selector items are sorted upfront and dependency items are
+ * kept per boot version, meaning a wizard can use them as is. Lists are
+ * immutable and shared between wizard runs.
+ *
+ * @author Janne Valkealahti
+ */
+class InitWizardView {
+
+	private final Metadata metadata;
+	private final MetadataIndex index;
+	private final List<SelectorItem<String>> projects;
+	private final List<SelectorItem<String>> languages;
+	private final List<SelectorItem<String>> bootVersions;
+	private final List<SelectorItem<String>> packagings;
+	private final List<SelectorItem<String>> javaVersions;
+	private final Map<String, List<SelectorItem<String>>> dependencies = new ConcurrentHashMap<>();
+
+	private InitWizardView(MetadataIndex index) {
+		this.metadata = index.getMetadata();
+		this.index = index;
+		this.projects = byName(items(metadata.getType().getValues().stream()
+				.filter(v -> ObjectUtils.nullSafeEquals(v.getTags().get("format"), "project"))
+				.collect(Collectors.toList())));
+		this.languages = byName(items(metadata.getLanguage().getValues()));
+		// newest first, versions which don't parse go last
+		this.bootVersions = immutable(SelectorItem.sortByKey(items(metadata.getBootVersion().getValues()),
+				item -> InitializrUtils.parseVersion(item.getItem()),
+				Comparator.nullsLast(Comparator.<Version>reverseOrder())));
+		this.javaVersions = immutable(SelectorItem.sortByKey(items(metadata.getJavaVersion().getValues()),
+				InitWizardView::javaVersionKey, Comparator.nullsLast(Comparator.<Integer>naturalOrder())));
+		this.packagings = byName(items(metadata.getPackaging().getValues()));
+		// items for a default boot version are likely needed first
+		getDependencies(metadata.getBootVersion().getDefaultversion());
+	}
+
+	/**
+	 * Build a view for a metadata of an index.
+	 *
+	 * @param index the metadata index
+	 * @return the view
+	 */
+	static InitWizardView of(MetadataIndex index) {
+		return new InitWizardView(index);
+	}
+
+	Metadata getMetadata() {
+		return metadata;
+	}
+
+	MetadataIndex getIndex() {
+		return index;
+	}
+
+	List<SelectorItem<String>> getProjects() {
+		return projects;
+	}
+
+	List<SelectorItem<String>> getLanguages() {
+		return languages;
+	}
+
+	List<SelectorItem<String>> getBootVersions() {
+		return bootVersions;
+	}
+
+	List<SelectorItem<String>> getPackagings() {
+		return packagings;
+	}
+
+	List<SelectorItem<String>> getJavaVersions() {
+		return javaVersions;
+	}
+
+	/**
+	 * Gets dependency items sorted by name where dependencies not compatible
+	 * with a boot version are disabled. Items are built once per boot version.
+	 *
+	 * @param bootVersion the boot version
+	 * @return the dependency items
+	 */
+	List<SelectorItem<String>> getDependencies(String bootVersion) {
+		String key = bootVersion != null ? bootVersion : "";
+		return dependencies.computeIfAbsent(key, v -> {
+			BitSet compatible = v.isEmpty() ? null : index.compatibleDependencies(v);
+			List<SelectorItem<String>> items = new ArrayList<>(index.getDependencyCount());
+			for (int i = 0; i < index.getDependencyCount(); i++) {
+				Dependency dependency = index.getDependency(i);
+				items.add(SelectorItem.of(dependency.getName(), dependency.getId(),
+						compatible == null || compatible.get(i)));
+			}
+			return byName(items);
+		});
+	}
+
+	private static List<SelectorItem<String>> items(Collection<? extends IdName> values) {
+		return values.stream()
+				.map(v -> SelectorItem.of(v.getName(), v.getId()))
+				.collect(Collectors.toList());
+	}
+
+	private static List<SelectorItem<String>> byName(List<SelectorItem<String>> items) {
+		return immutable(SelectorItem.sortByKey(items, SelectorItem::getName, Comparator.<String>naturalOrder()));
+	}
+
+	private static List<SelectorItem<String>> immutable(List<SelectorItem<String>> items) {
+		return Collections.unmodifiableList(items);
+	}
+
+	/**
+	 * Gets a feature release number from a java version name, legacy names
+	 * like {@code 1.8} are handled as {@code 8}.
+	 */
+	private static Integer javaVersionKey(SelectorItem<String> item) {
+		String name = item.getName();
+		int start = name.startsWith("1.") ? 2 : 0;
+		if (start == name.length()) {
+			return null;
+		}
+		int value = 0;
+		for (int i = start; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c < '0' || c > '9' || value > Integer.MAX_VALUE / 10) {
+				return null;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+}
@@ -15,10 +15,13 @@
  */
 package org.springframework.experimental.initializrcli.command;
 
+import java.util.BitSet;
 import java.util.stream.Stream;
 
-import org.springframework.experimental.initializrcli.client.model.Metadata;
-import org.springframework.experimental.initializrcli.support.InitializrUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.experimental.initializrcli.client.InitializrClient;
+import org.springframework.experimental.initializrcli.support.InitializrClientUpdatedEvent;
+import org.springframework.experimental.initializrcli.support.MetadataIndex;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellOption;
@@ -34,7 +37,7 @@ public class ServerCommands extends AbstractInitializrCommands {
 
 	@ShellMethod(key = "info", value = "Show the Initializr server being used")
 	public String info() {
-		return client.info();
+		return getClient().info();
 	}
 
 	@ShellMethod(key = "dependencies", value = "List supported dependencies")
@@ -42,14 +45,17 @@ public class ServerCommands extends AbstractInitializrCommands {
 		@ShellOption(help = "Search string to limit results", defaultValue = ShellOption.NULL) String search,
 		@ShellOption(help = "Limit to compatibility version", defaultValue = ShellOption.NULL) String version
 	) {
-		Metadata metadata = client.getMetadata();
+		MetadataIndex index = getMetadataIndex(getClient());
+
+		BitSet matches = index.getSearchIndex().search(search);
+		if (StringUtils.hasText(version)) {
+			matches.and(index.compatibleDependencies(version));
+		}
 
 		Stream<String[]> header = Stream.<String[]>of(new String[] { "Id", "Name", "Description", "Required version" });
-		Stream<String[]> rows = metadata.getDependencies().getValues().stream()
-				.flatMap(dc -> dc.getValues().stream())
-				.filter(d -> InitializrUtils.isDependencyCompatible(d, version))
-				.map(d -> new String[] { d.getId(), d.getName(), d.getDescription(), d.getVersionRange() })
-				.filter(d -> matches(d, search));
+		Stream<String[]> rows = matches.stream()
+				.mapToObj(index::getDependency)
+				.map(d -> new String[] { d.getId(), d.getName(), d.getDescription(), d.getVersionRange() });
 		String[][] data = Stream.concat(header, rows).toArray(String[][]::new);
 
 		TableModel model = new ArrayTableModel(data);
@@ -57,16 +63,15 @@ public class ServerCommands extends AbstractInitializrCommands {
 		return tableBuilder.addFullBorder(BorderStyle.fancy_light).build();
 	}
 
-	private static boolean matches(String[] array, String search) {
-		if (!StringUtils.hasText(search)) {
-			return true;
-		}
-		search = search.toLowerCase();
-		for (String field : array) {
-			if (StringUtils.hasText(field) && field.toLowerCase().contains(search)) {
-				return true;
-			}
+	/**
+	 * Builds indexes for a new metadata so that a first search doesn't need to
+	 * wait for it. Listener is called on a thread which connected to a server.
+	 */
+	@EventListener
+	public void handle(InitializrClientUpdatedEvent event) {
+		InitializrClient client = event.getClient();
+		if (client != null) {
+			getMetadataIndex(client).getSearchIndex();
 		}
-		return false;
 	}
 }
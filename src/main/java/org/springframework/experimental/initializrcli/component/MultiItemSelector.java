@@ -15,6 +15,7 @@
  */
 package org.springframework.experimental.initializrcli.component;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -25,9 +26,11 @@ import java.util.stream.Collectors;
 
 import org.jline.terminal.Terminal;
 import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
 
 import org.springframework.experimental.initializrcli.component.context.ComponentContext;
 import org.springframework.experimental.initializrcli.component.support.AbstractSelectorComponent;
+import org.springframework.experimental.initializrcli.component.support.AbstractSelectorComponent.ItemState;
 import org.springframework.experimental.initializrcli.component.support.Enableable;
 import org.springframework.experimental.initializrcli.component.support.Itemable;
 import org.springframework.experimental.initializrcli.component.support.Matchable;
@@ -43,12 +46,13 @@ import org.springframework.experimental.initializrcli.component.MultiItemSelecto
 public class MultiItemSelector<T, I extends Nameable & Matchable & Enableable & Itemable<T>>
 		extends AbstractSelectorComponent<T, MultiItemSelectorContext<T, I>, I> {
 
+	private final static String DEFAULT_TEMPLATE_LOCATION = "classpath:org/springframework/shell/component/multi-item-selector-default.stg";
 	private MultiItemSelectorContext<T, I> currentContext;
 
 	public MultiItemSelector(Terminal terminal, List<I> items, String name, Comparator<I> comparator) {
 		super(terminal, name, items, false, comparator);
 		setRenderer(new DefaultRenderer());
-		setTemplateLocation("classpath:org/springframework/shell/component/multi-item-selector-default.stg");
+		setTemplateLocation(DEFAULT_TEMPLATE_LOCATION);
 	}
 
 	@Override
@@ -61,9 +65,8 @@ public class MultiItemSelector<T, I extends Nameable & Matchable & Enableable &
 		if (currentContext.getItems() == null) {
 			currentContext.setItems(getItems());
 		}
-		context.stream().forEach(e -> {
-			currentContext.put(e.getKey(), e.getValue());
-		});
+		// shares storage with a given context until either one is modified
+		currentContext.putAll(context);
 		return currentContext;
 	}
 
@@ -156,7 +159,41 @@ public class MultiItemSelector<T, I extends Nameable & Matchable & Enableable &
 
 		@Override
 		public List<AttributedString> apply(MultiItemSelectorContext<T, I> context) {
-			return renderTemplateResource(context.toTemplateModel());
+			if (!DEFAULT_TEMPLATE_LOCATION.equals(getTemplateLocation())) {
+				return renderTemplateResource(context.toTemplateModel());
+			}
+			// same output as a default template without going through a template engine
+			AttributedStringBuilder builder = new AttributedStringBuilder();
+			appendQuestionName(builder, context.getName());
+			builder.append(" ");
+			if (context.isResult()) {
+				appendStyled(builder, String.join(",", context.getValues()), "value");
+				return Collections.singletonList(builder.toAttributedString());
+			}
+			builder.append("[Use arrows to move]");
+			builder.append(context.getInput() != null ? ", filtering '" + context.getInput() + "'" : ", type to filter");
+			List<ItemState<I>> view = context.getItemStateView();
+			List<AttributedString> rows = new ArrayList<>(view.size() + 1);
+			rows.add(builder.toAttributedString());
+			int cursorRow = context.getCursorRow();
+			for (ItemState<I> state : view) {
+				builder = new AttributedStringBuilder();
+				appendStyled(builder, cursorRow == state.getIndex() ? "> " : "  ",
+						cursorRow == state.getIndex() ? "item-selector" : null);
+				if (state.isEnabled()) {
+					appendStyled(builder, state.isSelected() ? "[x]" : "[ ]",
+							state.isSelected() ? "item-selected" : "item-unselected");
+					builder.append(" ");
+					appendStyled(builder, state.getName(), null);
+				}
+				else {
+					appendStyled(builder, "[ ]", "item-disabled");
+					builder.append(" ");
+					appendStyled(builder, state.getName(), "item-disabled");
+				}
+				rows.add(builder.toAttributedString());
+			}
+			return rows;
 		}
 	}
 }
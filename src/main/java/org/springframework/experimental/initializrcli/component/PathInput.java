@@ -15,22 +15,28 @@
  */
 package org.springframework.experimental.initializrcli.component;
 
-import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.jline.keymap.BindingReader;
 import org.jline.keymap.KeyMap;
 import org.jline.terminal.Terminal;
 import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
 
 import org.springframework.experimental.initializrcli.component.PathInput.PathInputContext;
 import org.springframework.experimental.initializrcli.component.context.ComponentContext;
 import org.springframework.experimental.initializrcli.component.support.AbstractTextComponent;
+import org.springframework.experimental.initializrcli.component.support.PathStatusCache;
 import org.springframework.experimental.initializrcli.component.support.AbstractTextComponent.TextComponentContext;
 import org.springframework.experimental.initializrcli.component.support.AbstractTextComponent.TextComponentContext.MessageLevel;
 import org.springframework.util.StringUtils;;
@@ -42,8 +48,14 @@ import org.springframework.util.StringUtils;;
  */
 public class PathInput extends AbstractTextComponent<Path, PathInputContext> {
 
+	private final static String DEFAULT_TEMPLATE_LOCATION = "classpath:org/springframework/shell/component/path-input-default.stg";
+	public final static String OPERATION_COMPLETE = "COMPLETE";
+	private final static long CHECK_DELAY = 150;
+	private final PathStatusCache pathStatusCache = PathStatusCache.getSharedInstance();
 	private PathInputContext currentContext;
 	private Function<String, Path> pathProvider = (path) -> Path.of(path);
+	private ScheduledExecutorService checkExecutor;
+	private ScheduledFuture<?> pendingCheck;
 
 	public PathInput(Terminal terminal) {
 		this(terminal, null);
@@ -56,7 +68,7 @@ public class PathInput extends AbstractTextComponent<Path, PathInputContext> {
 	public PathInput(Terminal terminal, String name, Function<PathInputContext, List<AttributedString>> renderer) {
 		super(terminal, name, null);
 		setRenderer(renderer != null ? renderer : new DefaultRenderer());
-		setTemplateLocation("classpath:org/springframework/shell/component/path-input-default.stg");
+		setTemplateLocation(DEFAULT_TEMPLATE_LOCATION);
 	}
 
 	@Override
@@ -66,43 +78,77 @@ public class PathInput extends AbstractTextComponent<Path, PathInputContext> {
 		}
 		currentContext = PathInputContext.empty();
 		currentContext.setName(getName());
-		context.stream().forEach(e -> {
-			currentContext.put(e.getKey(), e.getValue());
-		});
+		// shares storage with a given context until either one is modified
+		currentContext.putAll(context);
 		return currentContext;
 	}
 
+	@Override
+	protected void bindKeyMap(KeyMap<String> keyMap) {
+		super.bindKeyMap(keyMap);
+		keyMap.bind(OPERATION_COMPLETE, "\t");
+	}
+
+	@Override
+	protected PathInputContext runInternal(PathInputContext context) {
+		try {
+			return super.runInternal(context);
+		}
+		finally {
+			if (checkExecutor != null) {
+				checkExecutor.shutdownNow();
+				checkExecutor = null;
+			}
+			pendingCheck = null;
+		}
+	}
+
 	@Override
 	protected boolean read(BindingReader bindingReader, KeyMap<String> keyMap, PathInputContext context) {
 		String operation = bindingReader.readBinding(keyMap);
 		String input;
 		switch (operation) {
 			case OPERATION_CHAR:
-				String lastBinding = bindingReader.getLastBinding();
-				input = context.getInput();
-				if (input == null) {
-					input = lastBinding;
-				}
-				else {
-					input = input + lastBinding;
+			case OPERATION_PASTE:
+				// whole burst or paste is a single input change
+				String chars = OPERATION_PASTE.equals(operation) ? readPaste(bindingReader)
+						: readBurst(bindingReader, bindingReader.getLastBinding());
+				if (chars.isEmpty()) {
+					markUnchanged();
+					break;
 				}
+				input = context.getInput();
+				input = input == null ? chars : input.concat(chars);
 				context.setInput(input);
 				checkPath(input, context);
 				break;
 			case OPERATION_BACKSPACE:
 				input = context.getInput();
-				if (StringUtils.hasLength(input)) {
-					input = input.length() > 1 ? input.substring(0, input.length() - 1) : null;
+				if (!StringUtils.hasLength(input)) {
+					markUnchanged();
+					break;
 				}
+				input = input.length() > 1 ? input.substring(0, input.length() - 1) : null;
 				context.setInput(input);
 				checkPath(input, context);
 				break;
+			case OPERATION_COMPLETE:
+				completePath(context);
+				break;
 			case OPERATION_EXIT:
 				if (StringUtils.hasText(context.getInput())) {
-					context.setResultValue(Paths.get(context.getInput()));
+					try {
+						context.setResultValue(resolvePath(context.getInput()));
+					}
+					catch (InvalidPathException e) {
+						// stay in a component until path is fixed
+						setPathMessage(null, context);
+						break;
+					}
 				}
 				return true;
 			default:
+				markUnchanged();
 				break;
 		}
 		return false;
@@ -128,13 +174,143 @@ public class PathInput extends AbstractTextComponent<Path, PathInputContext> {
 	}
 
 	private void checkPath(String path, PathInputContext context) {
+		if (pendingCheck != null) {
+			pendingCheck.cancel(false);
+			pendingCheck = null;
+		}
 		if (!StringUtils.hasText(path)) {
 			context.setMessage(null);
 			return;
 		}
-		Path p = resolvePath(path);
-		boolean isDirectory = Files.isDirectory(p);
-		if (isDirectory) {
+		Path p;
+		try {
+			p = resolvePath(path);
+		}
+		catch (InvalidPathException e) {
+			p = null;
+		}
+		Boolean cached = p != null ? pathStatusCache.getCached(p) : null;
+		if (cached != null) {
+			setPathMessage(cached, context);
+			return;
+		}
+		// filesystem may be slow so check in a background when typing pauses,
+		// result is dropped if input changed meanwhile and a message of a
+		// previous input is not shown until then
+		context.setMessage(null);
+		Path checked = p;
+		pendingCheck = getCheckExecutor().schedule(() -> {
+			Boolean isDirectory = checked != null ? isDirectory(checked) : null;
+			postUpdate(() -> {
+				if (path.equals(context.getInput())) {
+					setPathMessage(isDirectory, context);
+				}
+			});
+		}, CHECK_DELAY, TimeUnit.MILLISECONDS);
+		trackBackgroundTask(pendingCheck);
+	}
+
+	/**
+	 * Checks if a given {@link Path} is a directory. Called from a background
+	 * thread when typing pauses.
+	 *
+	 * @param path the path
+	 * @return true if path is a directory
+	 */
+	protected boolean isDirectory(Path path) {
+		return pathStatusCache.isDirectory(path);
+	}
+
+	private void completePath(PathInputContext context) {
+		String input = context.getInput() != null ? context.getInput() : "";
+		String separator = resolvePath("").getFileSystem().getSeparator();
+		int index = input.lastIndexOf(separator);
+		Path directory;
+		try {
+			directory = resolvePath(index < 0 ? "" : input.substring(0, index + 1));
+		}
+		catch (InvalidPathException e) {
+			markUnchanged();
+			return;
+		}
+		String prefix = input.substring(index + 1);
+		String[] listing = pathStatusCache.getCachedListing(directory);
+		String suffix = listing != null ? completion(listing, directory, prefix, separator, false) : null;
+		if (suffix != null) {
+			applyCompletion(input, suffix, context);
+			return;
+		}
+		// listing or a status of a single match is not known, resolve in a
+		// background and apply if input didn't change meanwhile
+		markUnchanged();
+		trackBackgroundTask(getCheckExecutor().submit(() -> {
+			String resolved = completion(pathStatusCache.list(directory), directory, prefix, separator, true);
+			postUpdate(() -> {
+				if (input.equals(context.getInput() != null ? context.getInput() : "")) {
+					applyCompletion(input, resolved, context);
+				}
+			});
+		}));
+	}
+
+	/**
+	 * Gets a suffix completing a prefix to a longest common prefix of matching
+	 * names, with a separator added if there's a single matching directory.
+	 * Returns {@code null} if not blocking and directory status of a single
+	 * match is not cached.
+	 */
+	private String completion(String[] listing, Path directory, String prefix, String separator, boolean blocking) {
+		int[] range = PathStatusCache.prefixRange(listing, prefix);
+		if (range[0] == range[1]) {
+			return "";
+		}
+		// in a sorted range first and last share a prefix common to all
+		String first = listing[range[0]];
+		String last = listing[range[1] - 1];
+		int common = prefix.length();
+		while (common < first.length() && common < last.length() && first.charAt(common) == last.charAt(common)) {
+			common++;
+		}
+		String suffix = first.substring(prefix.length(), common);
+		if (range[1] - range[0] == 1) {
+			Path match = directory.resolve(first);
+			Boolean isDirectory = blocking ? pathStatusCache.isDirectory(match) : pathStatusCache.getCached(match);
+			if (isDirectory == null) {
+				return null;
+			}
+			if (isDirectory) {
+				suffix = suffix + separator;
+			}
+		}
+		return suffix;
+	}
+
+	private void applyCompletion(String input, String suffix, PathInputContext context) {
+		if (suffix.isEmpty()) {
+			markUnchanged();
+			return;
+		}
+		String completed = input + suffix;
+		context.setInput(completed);
+		checkPath(completed, context);
+	}
+
+	private ScheduledExecutorService getCheckExecutor() {
+		if (checkExecutor == null) {
+			checkExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "path-input-check");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return checkExecutor;
+	}
+
+	private void setPathMessage(Boolean isDirectory, PathInputContext context) {
+		if (isDirectory == null) {
+			context.setMessage("Invalid path", MessageLevel.ERROR);
+		}
+		else if (isDirectory) {
 			context.setMessage("Directory exists", MessageLevel.ERROR);
 		}
 		else {
@@ -170,7 +346,45 @@ public class PathInput extends AbstractTextComponent<Path, PathInputContext> {
 
 		@Override
 		public List<AttributedString> apply(PathInputContext context) {
-			return renderTemplateResource(context.toTemplateModel());
+			if (!DEFAULT_TEMPLATE_LOCATION.equals(getTemplateLocation())) {
+				return renderTemplateResource(context.toTemplateModel());
+			}
+			// same output as a default template without going through a template engine
+			List<AttributedString> rows = new ArrayList<>(2);
+			AttributedStringBuilder builder = new AttributedStringBuilder();
+			appendQuestionName(builder, context.getName());
+			builder.append(" ");
+			if (context.getResultValue() != null) {
+				appendStyled(builder, context.getResultValue().toString(), "value");
+				rows.add(builder.toAttributedString());
+				return rows;
+			}
+			appendStyled(builder, context.getInput(), null);
+			rows.add(builder.toAttributedString());
+			String level = messageLevelTag(context.getMessageLevel());
+			if (context.getMessage() != null && level != null) {
+				builder = new AttributedStringBuilder();
+				String marker = context.getMessageLevel() == MessageLevel.ERROR ? ">>>"
+						: context.getMessageLevel() == MessageLevel.WARN ? ">>" : ">";
+				appendStyled(builder, marker, level);
+				builder.append(" ");
+				appendStyled(builder, context.getMessage(), level);
+				rows.add(builder.toAttributedString());
+			}
+			return rows;
+		}
+
+		private String messageLevelTag(MessageLevel level) {
+			if (level == MessageLevel.ERROR) {
+				return "level-error";
+			}
+			else if (level == MessageLevel.WARN) {
+				return "level-warn";
+			}
+			else if (level == MessageLevel.INFO) {
+				return "level-info";
+			}
+			return null;
 		}
 	}
 }
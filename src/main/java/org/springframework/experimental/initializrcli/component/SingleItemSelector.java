@@ -15,6 +15,8 @@
  */
 package org.springframework.experimental.initializrcli.component;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -25,9 +27,11 @@ import java.util.stream.Collectors;
 
 import org.jline.terminal.Terminal;
 import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
 
 import org.springframework.experimental.initializrcli.component.context.ComponentContext;
 import org.springframework.experimental.initializrcli.component.support.AbstractSelectorComponent;
+import org.springframework.experimental.initializrcli.component.support.AbstractSelectorComponent.ItemState;
 import org.springframework.experimental.initializrcli.component.support.Enableable;
 import org.springframework.experimental.initializrcli.component.support.Itemable;
 import org.springframework.experimental.initializrcli.component.support.Matchable;
@@ -43,12 +47,13 @@ import org.springframework.experimental.initializrcli.component.SingleItemSelect
 public class SingleItemSelector<T, I extends Nameable & Matchable & Enableable & Itemable<T>>
 		extends AbstractSelectorComponent<T, SingleItemSelectorContext<T, I>, I> {
 
+	private final static String DEFAULT_TEMPLATE_LOCATION = "classpath:org/springframework/shell/component/single-item-selector-default.stg";
 	private SingleItemSelectorContext<T, I> currentContext;
 
 	public SingleItemSelector(Terminal terminal, List<I> items, String name, Comparator<I> comparator) {
 		super(terminal, name, items, true, comparator);
 		setRenderer(new DefaultRenderer());
-		setTemplateLocation("classpath:org/springframework/shell/component/single-item-selector-default.stg");
+		setTemplateLocation(DEFAULT_TEMPLATE_LOCATION);
 	}
 
 	@Override
@@ -61,9 +66,8 @@ public class SingleItemSelector<T, I extends Nameable & Matchable & Enableable &
 		if (currentContext.getItems() == null) {
 			currentContext.setItems(getItems());
 		}
-		context.stream().forEach(e -> {
-			currentContext.put(e.getKey(), e.getValue());
-		});
+		// shares storage with a given context until either one is modified
+		currentContext.putAll(context);
 		return currentContext;
 	}
 
@@ -170,7 +174,36 @@ public class SingleItemSelector<T, I extends Nameable & Matchable & Enableable &
 
 		@Override
 		public List<AttributedString> apply(SingleItemSelectorContext<T, I> context) {
-			return renderTemplateResource(context.toTemplateModel());
+			if (!DEFAULT_TEMPLATE_LOCATION.equals(getTemplateLocation())) {
+				return renderTemplateResource(context.toTemplateModel());
+			}
+			// same output as a default template without going through a template engine
+			AttributedStringBuilder builder = new AttributedStringBuilder();
+			appendQuestionName(builder, context.getName());
+			builder.append(" ");
+			if (context.isResult()) {
+				appendStyled(builder, context.getValue().orElse(null), "value");
+				return Collections.singletonList(builder.toAttributedString());
+			}
+			builder.append("[Use arrows to move]");
+			builder.append(context.getInput() != null ? ", filtering '" + context.getInput() + "'" : ", type to filter");
+			List<ItemState<I>> view = context.getItemStateView();
+			List<AttributedString> rows = new ArrayList<>(view.size() + 1);
+			rows.add(builder.toAttributedString());
+			int cursorRow = context.getCursorRow();
+			for (ItemState<I> state : view) {
+				builder = new AttributedStringBuilder();
+				if (cursorRow == state.getIndex()) {
+					appendStyled(builder, "> ", "item-selector");
+					appendStyled(builder, state.getName(), "item-selector");
+				}
+				else {
+					builder.append("  ");
+					appendStyled(builder, state.getName(), null);
+				}
+				rows.add(builder.toAttributedString());
+			}
+			return rows;
 		}
 	}
 }
@@ -15,6 +15,7 @@
  */
 package org.springframework.experimental.initializrcli.component;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,7 @@ import org.jline.keymap.BindingReader;
 import org.jline.keymap.KeyMap;
 import org.jline.terminal.Terminal;
 import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
 
 import org.springframework.experimental.initializrcli.component.StringInput.StringInputContext;
 import org.springframework.experimental.initializrcli.component.context.ComponentContext;
@@ -38,6 +40,7 @@ import org.springframework.util.StringUtils;
  */
 public class StringInput extends AbstractTextComponent<String, StringInputContext> {
 
+	private final static String DEFAULT_TEMPLATE_LOCATION = "classpath:org/springframework/shell/component/string-input-default.stg";
 	private final String defaultValue;
 	private StringInputContext currentContext;
 
@@ -53,7 +56,7 @@ public class StringInput extends AbstractTextComponent<String, StringInputContex
 			Function<StringInputContext, List<AttributedString>> renderer) {
 		super(terminal, name, null);
 		setRenderer(renderer != null ? renderer : new DefaultRenderer());
-		setTemplateLocation("classpath:org/springframework/shell/component/string-input-default.stg");
+		setTemplateLocation(DEFAULT_TEMPLATE_LOCATION);
 		this.defaultValue = defaultValue;
 	}
 
@@ -64,9 +67,8 @@ public class StringInput extends AbstractTextComponent<String, StringInputContex
 		}
 		currentContext = StringInputContext.of(defaultValue);
 		currentContext.setName(getName());
-		context.stream().forEach(e -> {
-			currentContext.put(e.getKey(), e.getValue());
-		});
+		// shares storage with a given context until either one is modified
+		currentContext.putAll(context);
 		return currentContext;
 	}
 
@@ -76,21 +78,25 @@ public class StringInput extends AbstractTextComponent<String, StringInputContex
 		String input;
 		switch (operation) {
 			case OPERATION_CHAR:
-				String lastBinding = bindingReader.getLastBinding();
-				input = context.getInput();
-				if (input == null) {
-					input = lastBinding;
-				}
-				else {
-					input = input + lastBinding;
+			case OPERATION_PASTE:
+				// whole burst or paste is a single input change
+				String chars = OPERATION_PASTE.equals(operation) ? readPaste(bindingReader)
+						: readBurst(bindingReader, bindingReader.getLastBinding());
+				if (chars.isEmpty()) {
+					markUnchanged();
+					break;
 				}
+				input = context.getInput();
+				input = input == null ? chars : input.concat(chars);
 				context.setInput(input);
 				break;
 			case OPERATION_BACKSPACE:
 				input = context.getInput();
-				if (StringUtils.hasLength(input)) {
-					input = input.length() > 1 ? input.substring(0, input.length() - 1) : null;
+				if (!StringUtils.hasLength(input)) {
+					markUnchanged();
+					break;
 				}
+				input = input.length() > 1 ? input.substring(0, input.length() - 1) : null;
 				context.setInput(input);
 				break;
 			case OPERATION_EXIT:
@@ -102,6 +108,7 @@ public class StringInput extends AbstractTextComponent<String, StringInputContex
 				}
 				return true;
 			default:
+				markUnchanged();
 				break;
 		}
 		return false;
@@ -175,7 +182,24 @@ public class StringInput extends AbstractTextComponent<String, StringInputContex
 
 		@Override
 		public List<AttributedString> apply(StringInputContext context) {
-			return renderTemplateResource(context.toTemplateModel());
+			if (!DEFAULT_TEMPLATE_LOCATION.equals(getTemplateLocation())) {
+				return renderTemplateResource(context.toTemplateModel());
+			}
+			// same output as a default template without going through a template engine
+			AttributedStringBuilder builder = new AttributedStringBuilder();
+			appendQuestionName(builder, context.getName());
+			builder.append(" ");
+			if (context.getResultValue() != null) {
+				appendStyled(builder, context.getResultValue(), "value");
+			}
+			else if (context.getInput() != null) {
+				builder.append(context.getInput());
+			}
+			else {
+				String defaultValue = context.getDefaultValue() != null ? context.getDefaultValue() : "";
+				appendStyled(builder, "[Default " + defaultValue + "]", "value");
+			}
+			return Collections.singletonList(builder.toAttributedString());
 		}
 	}
 }
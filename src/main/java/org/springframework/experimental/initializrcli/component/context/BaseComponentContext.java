@@ -15,34 +15,42 @@
  */
 package org.springframework.experimental.initializrcli.component.context;
 
+import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
- * Base implementation of a {@link ComponentContext}.
+ * Base implementation of a {@link ComponentContext}. Values are kept in an
+ * array indexed by interned key slots. Contexts filled from another context
+ * share its slots and array and copy an array only when either one is
+ * modified, meaning passing values through a chain of components doesn't copy
+ * them. Entries are streamed in an order keys were first put within contexts
+ * sharing slots, which for a single context is an insertion order.
  *
  * @author Janne Valkealahti
  */
 @SuppressWarnings("unchecked")
-public class BaseComponentContext<C extends ComponentContext<C>> extends LinkedHashMap<Object, Object>
-		implements ComponentContext<C> {
+public class BaseComponentContext<C extends ComponentContext<C>> implements ComponentContext<C> {
+
+	private final static Object[] EMPTY = new Object[0];
+	private ContextSlots slots;
+	private Object[] values = EMPTY;
+	private boolean shared;
 
 	@Override
 	public Object get(Object key) {
-		Object o = super.get(key);
-		if (o != null) {
-			return o;
-		}
-		throw new NoSuchElementException("Context does not contain key: " + key);
+		int slot = slots != null ? slots.find(key) : -1;
+		return slot >= 0 && slot < values.length ? values[slot] : null;
 	}
 
 	@Override
 	public <T> T get(Object key, Class<T> type) {
 		Object value = get(key);
-		if (!type.isAssignableFrom(value.getClass())) {
+		if (value != null && !type.isAssignableFrom(value.getClass())) {
 			throw new IllegalArgumentException("Incorrect type specified for key '" +
 					key + "'. Expected [" + type + "] but actual type is [" + value.getClass() + "]");
 		}
@@ -51,13 +59,42 @@ public class BaseComponentContext<C extends ComponentContext<C>> extends LinkedH
 
 	@Override
 	public ComponentContext<C> put(Object key, Object value) {
-		super.put(key, value);
+		if (slots == null) {
+			slots = new ContextSlots();
+		}
+		int slot = slots.slot(key);
+		if (shared || slot >= values.length) {
+			values = Arrays.copyOf(values, Math.max(values.length, slot + 1));
+			shared = false;
+		}
+		values[slot] = value;
 		return this;
 	}
 
 	@Override
-	public Stream<java.util.Map.Entry<Object, Object>> stream() {
-		return entrySet().stream();
+	public ComponentContext<C> putAll(ComponentContext<?> context) {
+		if (values.length == 0 && context instanceof BaseComponentContext) {
+			BaseComponentContext<?> other = (BaseComponentContext<?>) context;
+			if (other.slots == null) {
+				return this;
+			}
+			// both copy on a next write
+			slots = other.slots;
+			values = other.values;
+			shared = true;
+			other.shared = true;
+			return this;
+		}
+		return ComponentContext.super.putAll(context);
+	}
+
+	@Override
+	public Stream<Map.Entry<Object, Object>> stream() {
+		ContextSlots currentSlots = slots;
+		Object[] current = values;
+		return IntStream.range(0, current.length)
+				.filter(i -> current[i] != null)
+				.mapToObj(i -> new AbstractMap.SimpleImmutableEntry<>(currentSlots.key(i), current[i]));
 	}
 
 	@Override
@@ -65,7 +102,18 @@ public class BaseComponentContext<C extends ComponentContext<C>> extends LinkedH
 		Map<String, Object> attributes = new HashMap<>();
 		// hardcoding enclosed map values into 'rawValues'
 		// as it may contain anything
-		attributes.put("rawValues", this);
+		attributes.put("rawValues", toMap());
 		return attributes;
 	}
+
+	@Override
+	public String toString() {
+		return toMap().toString();
+	}
+
+	private Map<Object, Object> toMap() {
+		Map<Object, Object> map = new LinkedHashMap<>();
+		stream().forEach(e -> map.put(e.getKey(), e.getValue()));
+		return map;
+	}
 }
@@ -42,7 +42,7 @@ public interface ComponentContext<C extends ComponentContext<C>> {
 	 *
 	 * @param <T> the type of context
 	 * @param key the key
-	 * @return a value
+	 * @return a value or {@code null} if context doesn't contain a key
 	 */
 	<T> T get(Object key);
 
@@ -52,7 +52,7 @@ public interface ComponentContext<C extends ComponentContext<C>> {
 	 * @param <T> the type of context
 	 * @param key the key
 	 * @param type the class type
-	 * @return a value
+	 * @return a value or {@code null} if context doesn't contain a key
 	 */
 	<T> T get(Object key, Class<T> type);
 
@@ -65,6 +65,17 @@ public interface ComponentContext<C extends ComponentContext<C>> {
 	 */
 	ComponentContext<C> put(Object key, Object value);
 
+	/**
+	 * Put all entries of a given context into this context.
+	 *
+	 * @param context the context
+	 * @return a context
+	 */
+	default ComponentContext<C> putAll(ComponentContext<?> context) {
+		context.stream().forEach(e -> put(e.getKey(), e.getValue()));
+		return this;
+	}
+
 	/**
 	 * Stream key/value pairs from this {@link ComponentContext}
 	 *
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.component.context;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table interning context keys into slot positions. A key gets a slot when
+ * it's first put into a context and keeps it, meaning contexts sharing a table
+ * agree on a position of a key and can store values in a plain array. A table
+ * is shared only by contexts filled from each other, i.e. contexts of a single
+ * flow, so it's collected with them and slots follow an order in which keys
+ * were first put within that flow.
+ *
+ * @author Janne Valkealahti
+ */
+final class ContextSlots {
+
+	private final Map<Object, Integer> slots = new ConcurrentHashMap<>();
+	private volatile Object[] keys = new Object[8];
+
+	/**
+	 * Gets a slot for a key, assigning a new one if key is not known.
+	 *
+	 * @param key the key
+	 * @return the slot
+	 */
+	int slot(Object key) {
+		Integer slot = slots.get(key);
+		if (slot != null) {
+			return slot;
+		}
+		synchronized (this) {
+			slot = slots.get(key);
+			if (slot == null) {
+				slot = slots.size();
+				Object[] current = keys;
+				if (slot >= current.length) {
+					current = Arrays.copyOf(current, current.length * 2);
+				}
+				current[slot] = key;
+				keys = current;
+				slots.put(key, slot);
+			}
+			return slot;
+		}
+	}
+
+	/**
+	 * Gets a slot for a key without assigning one.
+	 *
+	 * @param key the key
+	 * @return the slot or -1 if key is not known
+	 */
+	int find(Object key) {
+		Integer slot = slots.get(key);
+		return slot != null ? slot : -1;
+	}
+
+	/**
+	 * Gets a key in a slot.
+	 *
+	 * @param slot the slot
+	 * @return the key
+	 */
+	Object key(int slot) {
+		return keys[slot];
+	}
+}
@@ -15,15 +15,14 @@
  */
 package org.springframework.experimental.initializrcli.component.support;
 
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.UncheckedIOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -34,18 +33,20 @@ import org.jline.terminal.Attributes;
 import org.jline.terminal.Size;
 import org.jline.terminal.Terminal;
 import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
 import org.jline.utils.Display;
 import org.jline.utils.InfoCmp.Capability;
+import org.jline.utils.NonBlockingReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.context.ResourceLoaderAware;
-import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.experimental.initializrcli.component.context.ComponentContext;
 import org.springframework.shell.style.TemplateExecutor;
+import org.springframework.shell.style.ThemeResolver;
 import org.springframework.util.Assert;
-import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -62,6 +63,9 @@ public abstract class AbstractComponent<T extends ComponentContext<T>> implement
 	public final static String OPERATION_SELECT = "SELECT";
 	public final static String OPERATION_DOWN = "DOWN";
 	public final static String OPERATION_UP = "UP";
+	private final static long PENDING_INPUT_TIMEOUT = 1;
+	private final static long POSTED_UPDATE_TIMEOUT = 50;
+	private final static long NO_TIMEOUT = 0;
 
 	private final Terminal terminal;
 	private final BindingReader bindingReader;
@@ -72,7 +76,13 @@ public abstract class AbstractComponent<T extends ComponentContext<T>> implement
 	private boolean printResults = true;
 	private String templateLocation;
 	private TemplateExecutor templateExecutor;
+	private ThemeResolver themeResolver;
 	private ResourceLoader resourceLoader;
+	private final TemplateCache templateCache = TemplateCache.getSharedInstance();
+	private final Map<String, AttributedStyle> styles = new HashMap<>();
+	private boolean unchanged;
+	private final Queue<Runnable> postedUpdates = new ConcurrentLinkedQueue<>();
+	private final List<Future<?>> backgroundTasks = new ArrayList<>();
 
 	public AbstractComponent(Terminal terminal) {
 		Assert.notNull(terminal, "terminal must be set");
@@ -178,11 +188,45 @@ public abstract class AbstractComponent<T extends ComponentContext<T>> implement
 	}
 
 	/**
-	 * Sets a template location.
+	 * Gets a theme resolver.
+	 *
+	 * @return a theme resolver
+	 */
+	public ThemeResolver getThemeResolver() {
+		return themeResolver;
+	}
+
+	/**
+	 * Sets a theme resolver used to resolve styles for hand-written renderers.
+	 *
+	 * @param themeResolver the theme resolver
+	 */
+	public void setThemeResolver(ThemeResolver themeResolver) {
+		this.themeResolver = themeResolver;
+		this.styles.clear();
+	}
+
+	/**
+	 * Gets a template location.
+	 *
+	 * @return a template location
+	 */
+	public String getTemplateLocation() {
+		return templateLocation;
+	}
+
+	/**
+	 * Sets a template location. Templates are cached by location and a cached
+	 * template is refreshed when a location other than a default classpath one
+	 * is set.
 	 *
 	 * @param templateLocation the template location
 	 */
 	public void setTemplateLocation(String templateLocation) {
+		if (templateLocation != null && !templateLocation.equals(this.templateLocation)
+				&& !templateLocation.startsWith(ResourceLoader.CLASSPATH_URL_PREFIX)) {
+			templateCache.evict(templateLocation);
+		}
 		this.templateLocation = templateLocation;
 	}
 
@@ -193,7 +237,7 @@ public abstract class AbstractComponent<T extends ComponentContext<T>> implement
 	 * @return rendered content as attributed strings
 	 */
 	protected List<AttributedString> renderTemplateResource(Map<String, Object> attributes) {
-		String templateResource = resourceAsString(resourceLoader.getResource(templateLocation));
+		String templateResource = templateCache.getSource(templateLocation, resourceLoader);
 		log.debug("Rendering template: {}", templateResource);
 		log.debug("Rendering template attributes: {}", attributes);
 		AttributedString rendered;
@@ -213,6 +257,63 @@ public abstract class AbstractComponent<T extends ComponentContext<T>> implement
 		return rows;
 	}
 
+	/**
+	 * Resolve a style for a theme style tag like {@code title} or
+	 * {@code value}. Style is resolved once from a theme resolver which is the
+	 * same resolution a {@code format} option does in a template.
+	 *
+	 * @param tag the style tag
+	 * @return resolved style
+	 */
+	protected AttributedStyle resolveStyle(String tag) {
+		AttributedStyle style = styles.get(tag);
+		if (style == null) {
+			style = AttributedStyle.DEFAULT;
+			if (themeResolver != null) {
+				String spec = themeResolver.resolveTag(tag);
+				if (spec != null) {
+					style = themeResolver.resolveStyle(spec);
+				}
+			}
+			styles.put(tag, style);
+		}
+		return style;
+	}
+
+	/**
+	 * Append a text with a style resolved from a style tag. Nothing is appended
+	 * if text is {@code null}.
+	 *
+	 * @param builder the builder
+	 * @param text the text
+	 * @param tag the style tag, {@code null} for no style
+	 * @return the builder
+	 */
+	protected AttributedStringBuilder appendStyled(AttributedStringBuilder builder, String text, String tag) {
+		if (text != null) {
+			if (tag != null) {
+				builder.styled(resolveStyle(tag), text);
+			}
+			else {
+				builder.append(text);
+			}
+		}
+		return builder;
+	}
+
+	/**
+	 * Append a question part '? name' shared by all default templates.
+	 *
+	 * @param builder the builder
+	 * @param name the name
+	 * @return the builder
+	 */
+	protected AttributedStringBuilder appendQuestionName(AttributedStringBuilder builder, String name) {
+		appendStyled(builder, "?", "list-value");
+		builder.append(" ");
+		return appendStyled(builder, name, "title");
+	}
+
 	/**
 	 * Gets a real component context using common this trick.
 	 *
@@ -264,16 +365,38 @@ public abstract class AbstractComponent<T extends ComponentContext<T>> implement
 			display.clear();
 			display.reset();
 
+			postedUpdates.clear();
+			backgroundTasks.clear();
+			boolean dirty = true;
+			boolean first = true;
 			while (true) {
-				display.resize(size.getRows(), size.getColumns());
-				display.update(render(getThisContext(context)), 0);
+				// updates posted from other threads are applied before a next
+				// input so that they are seen in an order they happened
+				dirty |= applyPostedUpdates();
+				// render only when something changed and there's no more queued
+				// input, meaning a burst of keys is painted once
+				if (first || (dirty && !hasPendingInput(PENDING_INPUT_TIMEOUT))) {
+					display.resize(size.getRows(), size.getColumns());
+					display.update(render(getThisContext(context)), 0);
+					dirty = false;
+					first = false;
+				}
+				// wake up periodically only while a background task may still
+				// post an update, otherwise block until there's input
+				long timeout = hasBackgroundWork() ? POSTED_UPDATE_TIMEOUT : NO_TIMEOUT;
+				if (!hasPendingInput(timeout)) {
+					continue;
+				}
+				unchanged = false;
 				boolean exit = read(bindingReader, keyMap, getThisContext(context));
 				if (exit) {
 					break;
 				}
+				dirty |= !unchanged;
 			}
 		}
 		finally {
+			backgroundTasks.clear();
 			terminal.setAttributes(attr);
 			terminal.puts(Capability.keypad_local);
 			terminal.puts(Capability.cursor_visible);
@@ -281,6 +404,38 @@ public abstract class AbstractComponent<T extends ComponentContext<T>> implement
 		}
 	}
 
+	/**
+	 * Mark that a last read didn't change anything visible, meaning a frame
+	 * doesn't need to be rendered again. Called from {@link #read} which
+	 * otherwise is expected to have changed a model.
+	 */
+	protected void markUnchanged() {
+		this.unchanged = true;
+	}
+
+	/**
+	 * Post an update to be run in a read loop thread, i.e. to change a context
+	 * with results of a background task. A frame is rendered after updates are
+	 * applied even if there's no new input. Task posting an update needs to be
+	 * tracked with {@link #trackBackgroundTask(Future)}.
+	 *
+	 * @param update the update
+	 */
+	protected void postUpdate(Runnable update) {
+		this.postedUpdates.add(update);
+	}
+
+	/**
+	 * Track a background task which posts updates. Read loop waits for posted
+	 * updates only while tracked tasks are running and otherwise blocks until
+	 * there's input. Needs to be called from a read loop thread.
+	 *
+	 * @param task the background task
+	 */
+	protected void trackBackgroundTask(Future<?> task) {
+		this.backgroundTasks.add(task);
+	}
+
 	/**
 	 * Run pre-run handlers
 	 *
@@ -303,6 +458,27 @@ public abstract class AbstractComponent<T extends ComponentContext<T>> implement
 		return context;
 	}
 
+	private boolean hasPendingInput(long timeout) {
+		// peek doesn't consume and also sees chars pushed back by a binding read,
+		// end of stream is left for a read to handle
+		return bindingReader.peekCharacter(timeout) != NonBlockingReader.READ_EXPIRED;
+	}
+
+	private boolean hasBackgroundWork() {
+		backgroundTasks.removeIf(Future::isDone);
+		return !backgroundTasks.isEmpty() || !postedUpdates.isEmpty();
+	}
+
+	private boolean applyPostedUpdates() {
+		boolean applied = false;
+		Runnable update;
+		while ((update = postedUpdates.poll()) != null) {
+			update.run();
+			applied = true;
+		}
+		return applied;
+	}
+
 	private void printResults(ComponentContext<?> context) {
 		log.debug("About to write result with incoming context [{}] as class [{}] in [{}]", context, context.getClass(),
 				this);
@@ -315,12 +491,4 @@ public abstract class AbstractComponent<T extends ComponentContext<T>> implement
 			terminal.writer().flush();
 		}
 	}
-
-	private static String resourceAsString(Resource resource) {
-		try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
-			return FileCopyUtils.copyToString(reader);
-		} catch (IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
@@ -15,7 +15,13 @@
  */
 package org.springframework.experimental.initializrcli.component.support;
 
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -45,13 +51,19 @@ import static org.jline.keymap.KeyMap.key;
 public abstract class AbstractSelectorComponent<T, C extends SelectorComponentContext<T, I, C>, I extends Nameable & Matchable & Enableable & Itemable<T>>
 		extends AbstractComponent<C> {
 
+
 	protected final String name;
 	private final List<I> items;
 	private Comparator<I> comparator = (o1, o2) -> 0;
 	private boolean exitSelects;
 	private int maxItems = 5;
 	private Function<T, String> itemMapper = item -> item.toString();
-	private boolean stale = false;
+	private Matcher matcher;
+	private final BitSet selected = new BitSet();
+	private final BitSet enabled = new BitSet();
+	private final Deque<FilterLevel> filterLevels = new ArrayDeque<>();
+	private List<ItemState<I>> filteredStates;
+	private final Viewport viewport = new Viewport();
 	private AtomicInteger start = new AtomicInteger(0);
 	private AtomicInteger pos = new AtomicInteger(0);
 
@@ -95,6 +107,17 @@ public abstract class AbstractSelectorComponent<T, C extends SelectorComponentCo
 		return itemMapper;
 	}
 
+	/**
+	 * Sets a matcher used to filter items. Filtered items are ordered by a match
+	 * score and matching is done against an item name and its mapped value. If
+	 * not set, items are filtered with {@link Matchable#matches(String)}.
+	 *
+	 * @param matcher the matcher
+	 */
+	public void setMatcher(Matcher matcher) {
+		this.matcher = matcher;
+	}
+
 	/**
 	 * Gets items.
 	 *
@@ -120,8 +143,7 @@ public abstract class AbstractSelectorComponent<T, C extends SelectorComponentCo
 	@Override
 	protected C runInternal(C context) {
 		C thisContext = getThisContext(context);
-		ItemStateViewProjection buildItemStateView = buildItemStateView(start.get(), thisContext);
-		List<ItemState<I>> itemStateView = buildItemStateView.items;
+		Viewport itemStateView = buildItemStateView(start.get(), thisContext);
 		thisContext.setItemStateView(itemStateView);
 		thisContext.setCursorRow(start.get() + pos.get());
 		return thisContext;
@@ -129,38 +151,34 @@ public abstract class AbstractSelectorComponent<T, C extends SelectorComponentCo
 
 	@Override
 	protected boolean read(BindingReader bindingReader, KeyMap<String> keyMap, C context) {
-
-		if (stale) {
-			start.set(0);
-			pos.set(0);
-			stale = false;
-		}
 		C thisContext = getThisContext(context);
-		ItemStateViewProjection buildItemStateView = buildItemStateView(start.get(), thisContext);
-		List<ItemState<I>> itemStateView = buildItemStateView.items;
+		Viewport itemStateView = buildItemStateView(start.get(), thisContext);
 		String operation = bindingReader.readBinding(keyMap);
 		String input;
+		int startBefore = start.get();
+		int posBefore = pos.get();
+		boolean changed = true;
 		switch (operation) {
 			case OPERATION_SELECT:
 				if (!exitSelects) {
-					itemStateView.forEach(i -> {
-						if (i.index == start.get() + pos.get() && i.enabled) {
-							i.selected = !i.selected;
-						}
-					});
+					toggleSelected(itemStateView, true);
+				}
+				else {
+					changed = false;
 				}
 				break;
 			case OPERATION_DOWN:
 				if (start.get() + pos.get() + 1 < itemStateView.size()) {
 					pos.incrementAndGet();
 				}
-				else if (start.get() + pos.get() + 1 >= buildItemStateView.total) {
+				else if (start.get() + pos.get() + 1 >= itemStateView.total) {
 					start.set(0);
 					pos.set(0);
 				}
 				else {
 					start.incrementAndGet();
 				}
+				changed = start.get() != startBefore || pos.get() != posBefore;
 				break;
 			case OPERATION_UP:
 				if (start.get() > 0 && pos.get() == 0) {
@@ -170,12 +188,13 @@ public abstract class AbstractSelectorComponent<T, C extends SelectorComponentCo
 					pos.decrementAndGet();
 				}
 				else if (start.get() + pos.get() <= 0) {
-					start.set(buildItemStateView.total - Math.min(maxItems, itemStateView.size()));
+					start.set(itemStateView.total - Math.min(maxItems, itemStateView.size()));
 					pos.set(itemStateView.size() - 1);
 				}
 				else {
 					pos.decrementAndGet();
 				}
+				changed = start.get() != startBefore || pos.get() != posBefore;
 				break;
 			case OPERATION_CHAR:
 				String lastBinding = bindingReader.getLastBinding();
@@ -187,76 +206,214 @@ public abstract class AbstractSelectorComponent<T, C extends SelectorComponentCo
 					input = input + lastBinding;
 				}
 				thisContext.setInput(input);
-
-				stale = true;
+				// narrowed filter may not reach a current position, so reset
+				// before a view is rendered
+				start.set(0);
+				pos.set(0);
 				break;
 			case OPERATION_BACKSPACE:
 				input = thisContext.getInput();
-				if (StringUtils.hasLength(input)) {
-					input = input.length() > 1 ? input.substring(0, input.length() - 1) : null;
+				if (!StringUtils.hasLength(input)) {
+					changed = false;
+					break;
 				}
+				input = input.length() > 1 ? input.substring(0, input.length() - 1) : null;
 				thisContext.setInput(input);
 				break;
 			case OPERATION_EXIT:
 				if (exitSelects) {
 					if (itemStateView.size() == 0) {
 						// filter shows nothing, prevent exit
+						changed = false;
 						break;
 					}
-					itemStateView.forEach(i -> {
-						if (i.index == start.get() + pos.get()) {
-							i.selected = !i.selected;
-						}
-					});
+					toggleSelected(itemStateView, false);
+				}
+				List<ItemState<I>> itemStates = thisContext.getItemStates();
+				List<I> values = new ArrayList<>(selected.cardinality());
+				for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+					values.add(itemStates.get(i).item);
 				}
-				List<I> values = thisContext.getItemStates().stream()
-						.filter(i -> i.selected)
-						.map(i -> i.item)
-						.collect(Collectors.toList());
 				thisContext.setResultItems(values);
 				return true;
 			default:
+				changed = false;
 				break;
 		}
+		if (!changed) {
+			markUnchanged();
+			return false;
+		}
 		thisContext.setCursorRow(start.get() + pos.get());
-		buildItemStateView = buildItemStateView(start.get(), thisContext);
-		thisContext.setItemStateView(buildItemStateView.items);
+		thisContext.setItemStateView(buildItemStateView(start.get(), thisContext));
 		return false;
 	}
 
-	private ItemStateViewProjection buildItemStateView(int skip, SelectorComponentContext<T, I, ?> context) {
+	private void toggleSelected(Viewport itemStateView, boolean enabledOnly) {
+		int row = pos.get();
+		if (row < itemStateView.size()) {
+			int order = itemStateView.order(row);
+			if (!enabledOnly || enabled.get(order)) {
+				selected.flip(order);
+			}
+		}
+	}
+
+	private Viewport buildItemStateView(int skip, SelectorComponentContext<T, I, ?> context) {
 		List<ItemState<I>> itemStates = context.getItemStates();
 		if (itemStates == null) {
 			AtomicInteger index = new AtomicInteger(0);
 			itemStates = context.getItems().stream()
 					.sorted(comparator)
-					.map(item -> ItemState.of(item, item.getName(), index.getAndIncrement(), item.isEnabled()))
-					.collect(Collectors.toList());
+					.map(item -> ItemState.of(item, item.getName(), index.getAndIncrement(), selected, enabled))
+					.collect(Collectors.toCollection(ArrayList::new));
+			selected.clear();
+			enabled.clear();
+			for (ItemState<I> itemState : itemStates) {
+				if (itemState.item.isEnabled()) {
+					enabled.set(itemState.order);
+				}
+				if (matcher != null) {
+					itemState.matchKey = (itemState.name + " " + itemMapper.apply(itemState.item.getItem()))
+							.toLowerCase().toCharArray();
+				}
+			}
 			context.setItemStates(itemStates);
 		}
-		AtomicInteger reindex = new AtomicInteger(0);
-		List<ItemState<I>> filtered = itemStates.stream()
-			.filter(i -> {
-				return i.matches(context.getInput());
-			})
-			.map(i -> {
-				i.index = reindex.getAndIncrement();
-				return i;
-			})
-			.collect(Collectors.toList());
-		List<ItemState<I>> items = filtered.stream()
-			.skip(skip)
-			.limit(maxItems)
-			.collect(Collectors.toList());
-		return new ItemStateViewProjection(items, filtered.size());
+		FilterLevel level = filter(itemStates, context.getInput());
+		viewport.update(itemStates, level, skip);
+		return viewport;
+	}
+
+	/**
+	 * Gets a filter level for an input. Levels are kept in a stack where each
+	 * level is a result of narrowing a level below it, meaning a query which
+	 * extends a previous one only filters previous matches and a same query,
+	 * i.e. with navigation keys, reuses a previous result. When a query no
+	 * longer extends a level, i.e. on backspace, levels are dropped until a
+	 * wider one is found. This relies on a match of a query implying a match of
+	 * its prefix which is true for substring and subsequence matching.
+	 */
+	private FilterLevel filter(List<ItemState<I>> itemStates, String input) {
+		String query = input != null ? input : "";
+		FilterLevel base = filterLevels.peekLast();
+		if (base == null || filteredStates != itemStates) {
+			filterLevels.clear();
+			int[] all = new int[itemStates.size()];
+			for (int i = 0; i < all.length; i++) {
+				all[i] = i;
+			}
+			filterLevels.push(new FilterLevel("", null, all, all.length));
+			filteredStates = itemStates;
+		}
+		while (filterLevels.size() > 1 && !query.startsWith(filterLevels.peek().query)) {
+			filterLevels.pop();
+		}
+		FilterLevel top = filterLevels.peek();
+		if (top.query.equals(query)) {
+			return top;
+		}
+		FilterLevel level = narrow(itemStates, top, query);
+		filterLevels.push(level);
+		return level;
+	}
+
+	private FilterLevel narrow(List<ItemState<I>> itemStates, FilterLevel from, String query) {
+		int[] positions = new int[from.size];
+		int size = 0;
+		if (matcher == null) {
+			for (int i = 0; i < from.size; i++) {
+				if (itemStates.get(from.positions[i]).matches(query)) {
+					positions[size++] = from.positions[i];
+				}
+			}
+			return new FilterLevel(query, null, positions, size);
+		}
+		// pattern is prepared once per level, scoring itself doesn't allocate
+		char[] pattern = StringUtils.hasText(query) ? query.toLowerCase().toCharArray() : null;
+		if (pattern == null) {
+			System.arraycopy(from.positions, 0, positions, 0, from.size);
+			return new FilterLevel(query, null, positions, from.size);
+		}
+		// sort keys have a negated score in high bits and a position in low
+		// bits so that equal scores keep an original order
+		long[] keys = new long[from.size];
+		for (int i = 0; i < from.size; i++) {
+			int position = from.positions[i];
+			int score = matcher.match(itemStates.get(position).matchKey, pattern, null);
+			if (score != Matcher.NO_MATCH) {
+				keys[size++] = ((long) -score << 32) | position;
+			}
+		}
+		Arrays.sort(keys, 0, size);
+		for (int i = 0; i < size; i++) {
+			positions[i] = (int) keys[i];
+		}
+		return new FilterLevel(query, pattern, positions, size);
 	}
 
-	private class ItemStateViewProjection {
-		List<ItemState<I>> items;
+	private static class FilterLevel {
+		final String query;
+		final char[] pattern;
+		final int[] positions;
+		final int size;
+		FilterLevel(String query, char[] pattern, int[] positions, int size) {
+			this.query = query;
+			this.pattern = pattern;
+			this.positions = positions;
+			this.size = size;
+		}
+	}
+
+	/**
+	 * Window into a filtered level backed by its position array. Same instance
+	 * is updated on every build so moving around doesn't create new lists.
+	 */
+	private class Viewport extends AbstractList<ItemState<I>> {
+
+		List<ItemState<I>> itemStates;
+		FilterLevel level;
+		int offset;
+		int length;
 		int total;
-		ItemStateViewProjection(List<ItemState<I>> items, int total) {
-			this.items = items;
-			this.total = total;
+
+		void update(List<ItemState<I>> itemStates, FilterLevel level, int skip) {
+			this.itemStates = itemStates;
+			this.level = level;
+			this.total = level.size;
+			this.offset = Math.min(skip, level.size);
+			this.length = Math.min(maxItems, level.size - offset);
+			for (int i = 0; i < length; i++) {
+				ItemState<I> itemState = get(i);
+				itemState.index = offset + i;
+				if (matcher != null && level.pattern != null) {
+					if (itemState.matchPositions == null || itemState.matchPositions.length != level.pattern.length) {
+						itemState.matchPositions = new int[level.pattern.length];
+					}
+					itemState.score = matcher.match(itemState.matchKey, level.pattern, itemState.matchPositions);
+				}
+				else {
+					itemState.score = 0;
+					itemState.matchPositions = null;
+				}
+			}
+		}
+
+		int order(int row) {
+			return level.positions[offset + row];
+		}
+
+		@Override
+		public ItemState<I> get(int row) {
+			if (row < 0 || row >= length) {
+				throw new IndexOutOfBoundsException(row);
+			}
+			return itemStates.get(order(row));
+		}
+
+		@Override
+		public int size() {
+			return length;
 		}
 	}
 
@@ -488,20 +645,27 @@ public abstract class AbstractSelectorComponent<T, C extends SelectorComponentCo
 	}
 
 	/**
-	 * Class keeping item state.
+	 * Class keeping item state. Selection and enabled state are kept in bit sets
+	 * shared by all items of a selector and indexed by an item order.
 	 */
 	public static class ItemState<I extends Matchable> implements Matchable {
 		I item;
 		String name;
-		boolean selected;
-		boolean enabled;
 		int index;
-
-		ItemState(I item, String name, int index, boolean enabled) {
+		final int order;
+		final BitSet selectedBits;
+		final BitSet enabledBits;
+		char[] matchKey;
+		int score;
+		int[] matchPositions;
+
+		ItemState(I item, String name, int index, BitSet selectedBits, BitSet enabledBits) {
 			this.item = item;
 			this.name = name;
 			this.index = index;
-			this.enabled = enabled;
+			this.order = index;
+			this.selectedBits = selectedBits;
+			this.enabledBits = enabledBits;
 		}
 
 		public boolean matches(String match) {
@@ -517,15 +681,36 @@ public abstract class AbstractSelectorComponent<T, C extends SelectorComponentCo
 		}
 
 		public boolean isSelected() {
-			return selected;
+			return selectedBits.get(order);
 		}
 
 		public boolean isEnabled() {
-			return enabled;
+			return enabledBits.get(order);
+		}
+
+		/**
+		 * Gets a score from a last match if filtered with a {@link Matcher}.
+		 *
+		 * @return a match score
+		 */
+		public int getScore() {
+			return score;
+		}
+
+		/**
+		 * Gets positions of matched characters if item is visible and filtered
+		 * with a {@link Matcher}. Positions beyond a name length are matches in
+		 * item value.
+		 *
+		 * @return match positions or {@code null}
+		 */
+		public int[] getMatchPositions() {
+			return matchPositions;
 		}
 
-		static <I extends Matchable> ItemState<I> of(I item, String name, int index, boolean enabled) {
-			return new ItemState<I>(item, name, index, enabled);
+		static <I extends Matchable> ItemState<I> of(I item, String name, int index, BitSet selectedBits,
+				BitSet enabledBits) {
+			return new ItemState<I>(item, name, index, selectedBits, enabledBits);
 		}
 	}
 
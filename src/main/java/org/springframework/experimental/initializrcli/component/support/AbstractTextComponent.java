@@ -19,8 +19,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
+import org.jline.keymap.BindingReader;
 import org.jline.keymap.KeyMap;
 import org.jline.terminal.Terminal;
+import org.jline.terminal.impl.DumbTerminal;
 import org.jline.utils.AttributedString;
 import org.jline.utils.InfoCmp.Capability;
 
@@ -38,6 +40,12 @@ import static org.jline.keymap.KeyMap.key;
  */
 public abstract class AbstractTextComponent<T, C extends TextComponentContext<T, C>> extends AbstractComponent<C> {
 
+	public final static String OPERATION_PASTE = "PASTE";
+	private final static String BRACKETED_PASTE_BEGIN = "\033[200~";
+	private final static String BRACKETED_PASTE_END = "\033[201~";
+	private final static String BRACKETED_PASTE_ON = "\033[?2004h";
+	private final static String BRACKETED_PASTE_OFF = "\033[?2004l";
+	private final static long BURST_TIMEOUT = 1;
 	private final String name;
 
 	public AbstractTextComponent(Terminal terminal) {
@@ -62,14 +70,93 @@ public abstract class AbstractTextComponent<T, C extends TextComponentContext<T,
 		for (char i = 32; i < KeyMap.KEYMAP_LENGTH - 1; i++) {
 			keyMap.bind(OPERATION_CHAR, Character.toString(i));
 		}
+		// characters outside of a keymap range, i.e. non-ascii text
+		keyMap.setUnicode(OPERATION_CHAR);
+		keyMap.bind(OPERATION_PASTE, BRACKETED_PASTE_BEGIN);
 	}
 
 	@Override
 	protected C runInternal(C context) {
-		loop(context);
+		// dumb terminals don't understand mode switches and would just print those
+		boolean bracketedPaste = !isDumbTerminal();
+		if (bracketedPaste) {
+			getTerminal().writer().write(BRACKETED_PASTE_ON);
+			getTerminal().writer().flush();
+		}
+		try {
+			loop(context);
+		}
+		finally {
+			if (bracketedPaste) {
+				getTerminal().writer().write(BRACKETED_PASTE_OFF);
+				getTerminal().writer().flush();
+			}
+		}
 		return context;
 	}
 
+	/**
+	 * Read a burst of printable characters which are already available after
+	 * a first character of an {@link #OPERATION_CHAR} binding. This allows a
+	 * pasted text on terminals without bracketed paste to be handled as one
+	 * input change instead of a change per character. Reading stops on a first
+	 * non-printable character so that it's handled as a normal binding.
+	 *
+	 * @param bindingReader the binding reader
+	 * @param first the already read characters
+	 * @return the characters
+	 */
+	protected String readBurst(BindingReader bindingReader, String first) {
+		StringBuilder buf = new StringBuilder(first);
+		while (isPrintable(bindingReader.peekCharacter(BURST_TIMEOUT))) {
+			buf.appendCodePoint(bindingReader.readCharacter());
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Read a bracketed paste after an {@link #OPERATION_PASTE} binding until an
+	 * end of a paste. Non-printable characters like line breaks are dropped as
+	 * text input is a single line.
+	 *
+	 * @param bindingReader the binding reader
+	 * @return the pasted characters
+	 */
+	protected String readPaste(BindingReader bindingReader) {
+		StringBuilder buf = new StringBuilder();
+		int endLength = BRACKETED_PASTE_END.length();
+		while (true) {
+			int c = bindingReader.readCharacter();
+			if (c < 0) {
+				break;
+			}
+			buf.appendCodePoint(c);
+			int length = buf.length();
+			if (length >= endLength && buf.indexOf(BRACKETED_PASTE_END, length - endLength) >= 0) {
+				buf.setLength(length - endLength);
+				break;
+			}
+		}
+		for (int i = buf.length() - 1; i >= 0; i--) {
+			if (!isPrintable(buf.charAt(i))) {
+				buf.deleteCharAt(i);
+			}
+		}
+		return buf.toString();
+	}
+
+	private boolean isDumbTerminal() {
+		String type = getTerminal().getType();
+		return getTerminal() instanceof DumbTerminal || Terminal.TYPE_DUMB.equals(type)
+				|| Terminal.TYPE_DUMB_COLOR.equals(type);
+	}
+
+	private static boolean isPrintable(int c) {
+		// anything bound to OPERATION_CHAR, negative values are an end of
+		// stream or an expired read
+		return c >= 0 && !Character.isISOControl(c);
+	}
+
 	/**
 	 * Gets a name.
 	 *
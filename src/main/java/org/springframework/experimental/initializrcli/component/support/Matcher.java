@@ -0,0 +1,159 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.component.support;
+
+/**
+ * Strategy matching a filter pattern against a selector item. Both text and
+ * pattern are given as lower case char arrays which are prepared once so that
+ * matching itself doesn't need to allocate anything.
+ *
+ * @author Janne Valkealahti
+ */
+public interface Matcher {
+
+	/**
+	 * Score returned when pattern doesn't match.
+	 */
+	int NO_MATCH = Integer.MIN_VALUE;
+
+	/**
+	 * Match a pattern against a text. If {@code positions} is given it's filled
+	 * with text positions of matched pattern characters which can be used to
+	 * highlight a match.
+	 *
+	 * @param text the lower case text
+	 * @param pattern the lower case pattern
+	 * @param positions the array of pattern length to fill with positions, may be null
+	 * @return the score, higher is better, or {@link #NO_MATCH}
+	 */
+	int match(char[] text, char[] pattern, int[] positions);
+
+	/**
+	 * Gets a matcher matching a pattern as a substring. Earlier matches score
+	 * higher.
+	 *
+	 * @return the substring matcher
+	 */
+	static Matcher substring() {
+		return SubstringMatcher.INSTANCE;
+	}
+
+	/**
+	 * Gets a matcher matching a pattern as a subsequence similarly to a tools
+	 * like {@code fzf}. Consecutive characters and characters at a start of a
+	 * word score higher and gaps between matched characters are penalized.
+	 *
+	 * @return the fuzzy matcher
+	 */
+	static Matcher fuzzy() {
+		return FuzzyMatcher.INSTANCE;
+	}
+
+	static class SubstringMatcher implements Matcher {
+
+		private final static SubstringMatcher INSTANCE = new SubstringMatcher();
+
+		@Override
+		public int match(char[] text, char[] pattern, int[] positions) {
+			if (pattern.length == 0) {
+				return 0;
+			}
+			outer:
+			for (int i = 0; i + pattern.length <= text.length; i++) {
+				for (int j = 0; j < pattern.length; j++) {
+					if (text[i + j] != pattern[j]) {
+						continue outer;
+					}
+				}
+				if (positions != null) {
+					for (int j = 0; j < pattern.length; j++) {
+						positions[j] = i + j;
+					}
+				}
+				return -i;
+			}
+			return NO_MATCH;
+		}
+	}
+
+	static class FuzzyMatcher implements Matcher {
+
+		private final static FuzzyMatcher INSTANCE = new FuzzyMatcher();
+		private final static int SCORE_MATCH = 16;
+		private final static int BONUS_BOUNDARY = 8;
+		private final static int BONUS_FIRST = 8;
+		private final static int BONUS_CONSECUTIVE = 8;
+		private final static int PENALTY_GAP_START = -3;
+		private final static int PENALTY_GAP_EXTENSION = -1;
+
+		@Override
+		public int match(char[] text, char[] pattern, int[] positions) {
+			if (pattern.length == 0) {
+				return 0;
+			}
+			// find first position where whole pattern is matched
+			int pi = 0;
+			int end = -1;
+			for (int i = 0; i < text.length; i++) {
+				if (text[i] == pattern[pi] && ++pi == pattern.length) {
+					end = i;
+					break;
+				}
+			}
+			if (end < 0) {
+				return NO_MATCH;
+			}
+			// scan backwards to find a shortest window ending there
+			pi = pattern.length - 1;
+			int start = end;
+			for (int i = end; i >= 0 && pi >= 0; i--) {
+				if (text[i] == pattern[pi]) {
+					start = i;
+					pi--;
+				}
+			}
+			int score = 0;
+			int previous = -2;
+			boolean inGap = false;
+			pi = 0;
+			for (int i = start; i <= end && pi < pattern.length; i++) {
+				if (text[i] == pattern[pi]) {
+					score += SCORE_MATCH;
+					if (i == 0) {
+						score += BONUS_FIRST + BONUS_BOUNDARY;
+					}
+					else if (!Character.isLetterOrDigit(text[i - 1])) {
+						score += BONUS_BOUNDARY;
+					}
+					if (previous == i - 1) {
+						score += BONUS_CONSECUTIVE;
+					}
+					if (positions != null) {
+						positions[pi] = i;
+					}
+					previous = i;
+					inGap = false;
+					pi++;
+				}
+				else {
+					score += inGap ? PENALTY_GAP_EXTENSION : PENALTY_GAP_START;
+					inGap = true;
+				}
+			}
+			return score;
+		}
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.component.support;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of directory checks for paths and of directory listings. Parent
+ * directory of a checked path and a listed directory are registered with a
+ * {@link WatchService} and cached results for a directory are dropped when
+ * entries in it are created or deleted. Paths whose directory can't be watched
+ * are not cached and a number of watched directories is limited. Listings are
+ * kept as sorted arrays for prefix searches and only a limited number of
+ * recently used listings are cached. A shared instance keeps results between
+ * component runs, i.e. between wizard steps.
+ *
+ * @author Janne Valkealahti
+ */
+public class PathStatusCache implements Closeable {
+
+	private final static Logger log = LoggerFactory.getLogger(PathStatusCache.class);
+	private final static int MAX_LISTINGS = 64;
+	private final static int MAX_WATCHED = 256;
+	private final static String[] EMPTY = new String[0];
+	private final static PathStatusCache SHARED_INSTANCE = new PathStatusCache();
+	private final Map<Path, Boolean> directories = new ConcurrentHashMap<>();
+	private final Map<FileSystem, WatchService> watchServices = new ConcurrentHashMap<>();
+	private final Set<Path> watched = ConcurrentHashMap.newKeySet();
+	private final Map<Path, String[]> listings = Collections.synchronizedMap(
+			new LinkedHashMap<Path, String[]>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Path, String[]> eldest) {
+					return size() > MAX_LISTINGS;
+				}
+			});
+
+	/**
+	 * Gets a shared instance.
+	 *
+	 * @return the shared path status cache
+	 */
+	public static PathStatusCache getSharedInstance() {
+		return SHARED_INSTANCE;
+	}
+
+	/**
+	 * Gets a cached directory status without touching a filesystem.
+	 *
+	 * @param path the path
+	 * @return true if path is a directory or {@code null} if not cached
+	 */
+	public Boolean getCached(Path path) {
+		processEvents();
+		return directories.get(key(path));
+	}
+
+	/**
+	 * Checks if a path is a directory using a cached status if available.
+	 *
+	 * @param path the path
+	 * @return true if path is a directory
+	 */
+	public boolean isDirectory(Path path) {
+		processEvents();
+		Path key = key(path);
+		Boolean cached = directories.get(key);
+		if (cached != null) {
+			return cached;
+		}
+		// register before a check so that a change in between is not missed
+		boolean watching = watch(key.getParent());
+		boolean directory = Files.isDirectory(key);
+		if (watching) {
+			directories.put(key, directory);
+		}
+		return directory;
+	}
+
+	/**
+	 * Gets a cached listing of a directory without touching a filesystem.
+	 *
+	 * @param directory the directory
+	 * @return sorted entry names or {@code null} if not cached
+	 */
+	public String[] getCachedListing(Path directory) {
+		processEvents();
+		return listings.get(key(directory));
+	}
+
+	/**
+	 * Lists entry names of a directory using a cached listing if available.
+	 *
+	 * @param directory the directory
+	 * @return sorted entry names, empty if directory can't be listed
+	 */
+	public String[] list(Path directory) {
+		processEvents();
+		Path key = key(directory);
+		String[] listing = listings.get(key);
+		if (listing != null) {
+			return listing;
+		}
+		boolean watching = watch(key);
+		try (Stream<Path> entries = Files.list(key)) {
+			listing = entries.map(e -> e.getFileName().toString()).sorted().toArray(String[]::new);
+		}
+		catch (IOException | UncheckedIOException e) {
+			log.debug("Unable to list directory {}", key, e);
+			return EMPTY;
+		}
+		if (watching) {
+			listings.put(key, listing);
+		}
+		return listing;
+	}
+
+	/**
+	 * Finds a range of names starting with a prefix from a sorted listing.
+	 *
+	 * @param listing the sorted names
+	 * @param prefix the prefix
+	 * @return range as start inclusive and end exclusive
+	 */
+	public static int[] prefixRange(String[] listing, String prefix) {
+		int start = lowerBound(listing, prefix);
+		// everything starting with a prefix sorts before prefix followed by a max char
+		int end = lowerBound(listing, prefix + Character.MAX_VALUE);
+		return new int[] { start, end };
+	}
+
+	private static int lowerBound(String[] listing, String key) {
+		int index = Arrays.binarySearch(listing, key);
+		return index < 0 ? -index - 1 : index;
+	}
+
+	@Override
+	public void close() {
+		for (WatchService watchService : watchServices.values()) {
+			try {
+				watchService.close();
+			}
+			catch (IOException e) {
+				log.debug("Unable to close watch service", e);
+			}
+		}
+		watchServices.clear();
+		watched.clear();
+		directories.clear();
+		listings.clear();
+	}
+
+	private boolean watch(Path directory) {
+		if (directory == null) {
+			return false;
+		}
+		if (watched.contains(directory)) {
+			return true;
+		}
+		if (watched.size() >= MAX_WATCHED) {
+			// keep a number of watches bounded, further paths are not cached
+			return false;
+		}
+		try {
+			WatchService watchService = watchServices.computeIfAbsent(directory.getFileSystem(), fs -> {
+				try {
+					return fs.newWatchService();
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_DELETE);
+			watched.add(directory);
+			return true;
+		}
+		catch (IOException | UncheckedIOException | UnsupportedOperationException e) {
+			log.debug("Unable to watch directory {}", directory, e);
+			return false;
+		}
+	}
+
+	private void processEvents() {
+		for (Map.Entry<FileSystem, WatchService> entry : watchServices.entrySet()) {
+			WatchService watchService = entry.getValue();
+			try {
+				WatchKey key;
+				while ((key = watchService.poll()) != null) {
+					Path directory = (Path) key.watchable();
+					key.pollEvents();
+					directories.keySet().removeIf(p -> directory.equals(p.getParent()));
+					listings.remove(directory);
+					if (!key.reset()) {
+						watched.remove(directory);
+					}
+				}
+			}
+			catch (ClosedWatchServiceException e) {
+				// closed from other thread or with its filesystem, forget
+				// everything cached through it
+				FileSystem fileSystem = entry.getKey();
+				watchServices.remove(fileSystem, watchService);
+				watched.removeIf(p -> p.getFileSystem() == fileSystem);
+				directories.keySet().removeIf(p -> p.getFileSystem() == fileSystem);
+				synchronized (listings) {
+					listings.keySet().removeIf(p -> p.getFileSystem() == fileSystem);
+				}
+			}
+		}
+	}
+
+	private static Path key(Path path) {
+		return path.toAbsolutePath().normalize();
+	}
+}
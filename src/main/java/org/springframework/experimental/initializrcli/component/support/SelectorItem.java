@@ -15,6 +15,13 @@
  */
 package org.springframework.experimental.initializrcli.component.support;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
 import org.springframework.util.StringUtils;
 
 public interface SelectorItem<T> extends Nameable, Matchable, Enableable, Itemable<T> {
@@ -27,6 +34,30 @@ public interface SelectorItem<T> extends Nameable, Matchable, Enableable, Itemab
 		return new SelectorItemWrapper<T>(name, item, enabled);
 	}
 
+	/**
+	 * Sort items by keys which are extracted once per item instead of on every
+	 * comparison. Sort is stable and {@code comparator} needs to handle
+	 * {@code null} keys if extractor can return those.
+	 *
+	 * @param items the items
+	 * @param keyExtractor the sort key extractor
+	 * @param comparator the sort key comparator
+	 * @return a new sorted list
+	 */
+	static <T, K> List<SelectorItem<T>> sortByKey(List<SelectorItem<T>> items,
+			Function<? super SelectorItem<T>, ? extends K> keyExtractor, Comparator<? super K> comparator) {
+		List<Map.Entry<K, SelectorItem<T>>> keyed = new ArrayList<>(items.size());
+		for (SelectorItem<T> item : items) {
+			keyed.add(new AbstractMap.SimpleImmutableEntry<>(keyExtractor.apply(item), item));
+		}
+		keyed.sort(Map.Entry.comparingByKey(comparator));
+		List<SelectorItem<T>> sorted = new ArrayList<>(keyed.size());
+		for (Map.Entry<K, SelectorItem<T>> entry : keyed) {
+			sorted.add(entry.getValue());
+		}
+		return sorted;
+	}
+
 	public static class SelectorItemWrapper<T> implements SelectorItem<T> {
 		private String name;
 		private boolean enabled;
@@ -52,7 +83,14 @@ public interface SelectorItem<T> extends Nameable, Matchable, Enableable, Itemab
 			if (!StringUtils.hasText(match)) {
 				return true;
 			};
-			return name.toLowerCase().contains(match.toLowerCase());
+			// case insensitive contains without creating lower case copies
+			int length = match.length();
+			for (int i = 0; i + length <= name.length(); i++) {
+				if (name.regionMatches(true, i, match, 0, length)) {
+					return true;
+				}
+			}
+			return false;
 		}
 
 		@Override
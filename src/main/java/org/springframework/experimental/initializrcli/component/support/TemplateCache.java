@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.component.support;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * Thread safe cache of template sources keyed by a template location. Shared
+ * instance is used by all components so that a template is read from a
+ * resource only once instead of on every rendered frame.
+ *
+ * @author Janne Valkealahti
+ */
+public class TemplateCache {
+
+	private final static TemplateCache SHARED_INSTANCE = new TemplateCache();
+	private final Map<String, String> sources = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets a shared instance.
+	 *
+	 * @return the shared template cache
+	 */
+	public static TemplateCache getSharedInstance() {
+		return SHARED_INSTANCE;
+	}
+
+	/**
+	 * Gets a template source for a location, reading it with a given resource
+	 * loader if not yet cached.
+	 *
+	 * @param location the template location
+	 * @param resourceLoader the resource loader
+	 * @return the template source
+	 */
+	public String getSource(String location, ResourceLoader resourceLoader) {
+		return sources.computeIfAbsent(location, l -> resourceAsString(resourceLoader.getResource(l)));
+	}
+
+	/**
+	 * Evict a cached template source.
+	 *
+	 * @param location the template location
+	 */
+	public void evict(String location) {
+		sources.remove(location);
+	}
+
+	private static String resourceAsString(Resource resource) {
+		try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+			return FileCopyUtils.copyToString(reader);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
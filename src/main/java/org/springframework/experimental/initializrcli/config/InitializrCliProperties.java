@@ -15,12 +15,17 @@
  */
 package org.springframework.experimental.initializrcli.config;
 
+import java.nio.file.Path;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 @ConfigurationProperties(prefix = "initializr.client")
 public class InitializrCliProperties {
 
 	private String baseUrl = "https://start.spring.io";
+	private Cache cache = new Cache();
+	private Offline offline = new Offline();
 
 	public String getBaseUrl() {
 		return baseUrl;
@@ -29,4 +34,92 @@ public class InitializrCliProperties {
 	public void setBaseUrl(String baseUrl) {
 		this.baseUrl = baseUrl;
 	}
+
+	public Cache getCache() {
+		return cache;
+	}
+
+	public void setCache(Cache cache) {
+		this.cache = cache;
+	}
+
+	public Offline getOffline() {
+		return offline;
+	}
+
+	public void setOffline(Offline offline) {
+		this.offline = offline;
+	}
+
+	public static class Cache {
+
+		/**
+		 * Whether data fetched from a server is cached on a disk.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Directory where cached data is stored.
+		 */
+		private Path dir = Path.of(System.getProperty("user.home"), ".initializr-cli", "cache");
+
+		/**
+		 * Maximum total size of cached project archives.
+		 */
+		private DataSize archiveMaxSize = DataSize.ofMegabytes(100);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Path getDir() {
+			return dir;
+		}
+
+		public void setDir(Path dir) {
+			this.dir = dir;
+		}
+
+		public DataSize getArchiveMaxSize() {
+			return archiveMaxSize;
+		}
+
+		public void setArchiveMaxSize(DataSize archiveMaxSize) {
+			this.archiveMaxSize = archiveMaxSize;
+		}
+	}
+
+	public static class Offline {
+
+		/**
+		 * Whether projects are generated locally from a metadata snapshot instead
+		 * of a server.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Metadata snapshot used in offline mode.
+		 */
+		private Path metadata = Path.of(System.getProperty("user.home"), ".initializr-cli", "metadata.json");
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Path getMetadata() {
+			return metadata;
+		}
+
+		public void setMetadata(Path metadata) {
+			this.metadata = metadata;
+		}
+	}
 }
@@ -45,6 +45,7 @@ import org.springframework.experimental.initializrcli.client.model.Packaging.Pac
 import org.springframework.experimental.initializrcli.client.model.ProjectType;
 import org.springframework.experimental.initializrcli.client.model.ProjectType.ProjectTypeValue;
 import org.springframework.experimental.initializrcli.client.model.Version;
+import org.springframework.experimental.initializrcli.command.BatchCommands.ProjectSpec;
 import org.springframework.nativex.hint.FieldHint;
 import org.springframework.nativex.hint.JdkProxyHint;
 import org.springframework.nativex.hint.MethodHint;
@@ -68,7 +69,7 @@ import org.springframework.nativex.type.NativeConfiguration;
 				ArtifactId.class, BootVersion.class, Dependencies.class, Dependency.class, DependencyCategory.class,
 				Description.class, GroupId.class, IdName.class, JavaVersion.class, JavaVersionValues.class, Language.class,
 				LanguageValues.class, Metadata.class, Name.class, PackageName.class, Packaging.class, PackagingValues.class,
-				ProjectType.class, ProjectTypeValue.class, Version.class, CallbackReference.class, Native.class,
+				ProjectType.class, ProjectTypeValue.class, Version.class, ProjectSpec.class, CallbackReference.class, Native.class,
 				NativeLong.class, PointerByReference.class, IntByReference.class, Base64.Decoder.class
 			},
 			typeNames = { "com.sun.jna.Klass" },
@@ -27,7 +27,7 @@ import org.springframework.stereotype.Component;
 @Component
 public class InitializrPromptProvider implements PromptProvider {
 
-	private InitializrClient client;
+	private volatile InitializrClient client;
 
 	@Override
 	public AttributedString getPrompt() {
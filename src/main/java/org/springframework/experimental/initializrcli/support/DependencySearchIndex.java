@@ -0,0 +1,162 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.experimental.initializrcli.client.model.Dependency;
+import org.springframework.experimental.initializrcli.client.model.DependencyCategory;
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.util.StringUtils;
+
+/**
+ * Trigram inverted index over dependency id, name, description, version
+ * range and a name of a category dependency belongs to. Searching is a case insensitive substring match against any
+ * of those fields. Candidates are found by intersecting posting lists of query
+ * trigrams and then verified against precomputed lower case keys.
+ *
+ * Positions used with this index are same as dependency positions in
+ * {@link MetadataIndex}, meaning results can be combined with compatibility
+ * bit sets.
+ *
+ * @author Janne Valkealahti
+ */
+public class DependencySearchIndex {
+
+	// fields are joined with a character which never appears in a query so
+	// that match never spans over two fields
+	private final static char FIELD_SEPARATOR = '\u0000';
+	private final String[] keys;
+	private final Map<Long, int[]> postings;
+
+	DependencySearchIndex(Metadata metadata) {
+		List<String> keys = new ArrayList<>();
+		for (DependencyCategory category : metadata.getDependencies().getValues()) {
+			for (Dependency dependency : category.getValues()) {
+				keys.add(key(category, dependency));
+			}
+		}
+		this.keys = keys.toArray(new String[0]);
+		Map<Long, List<Integer>> building = new HashMap<>();
+		for (int i = 0; i < this.keys.length; i++) {
+			for (long trigram : trigrams(this.keys[i])) {
+				building.computeIfAbsent(trigram, t -> new ArrayList<>()).add(i);
+			}
+		}
+		this.postings = new HashMap<>(building.size() * 2);
+		building.forEach((trigram, positions) -> {
+			postings.put(trigram, positions.stream().mapToInt(Integer::intValue).toArray());
+		});
+	}
+
+	/**
+	 * Search dependencies matching a search string. All dependencies match if
+	 * search string is empty.
+	 *
+	 * @param search the search string
+	 * @return new bit set of matching dependency positions
+	 */
+	public BitSet search(String search) {
+		BitSet result = new BitSet(keys.length);
+		if (!StringUtils.hasText(search)) {
+			result.set(0, keys.length);
+			return result;
+		}
+		String query = search.toLowerCase(Locale.ROOT);
+		if (query.length() < 3) {
+			// too short for trigrams, keys are still precomputed
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i].contains(query)) {
+					result.set(i);
+				}
+			}
+			return result;
+		}
+		List<int[]> lists = new ArrayList<>();
+		for (long trigram : trigrams(query)) {
+			int[] list = postings.get(trigram);
+			if (list == null) {
+				return result;
+			}
+			lists.add(list);
+		}
+		lists.sort(Comparator.comparingInt(l -> l.length));
+		int[] candidates = lists.get(0);
+		for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+			candidates = intersect(candidates, lists.get(i));
+		}
+		for (int candidate : candidates) {
+			if (keys[candidate].contains(query)) {
+				result.set(candidate);
+			}
+		}
+		return result;
+	}
+
+	private static int[] intersect(int[] a, int[] b) {
+		int[] out = new int[Math.min(a.length, b.length)];
+		int i = 0, j = 0, k = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			}
+			else if (a[i] > b[j]) {
+				j++;
+			}
+			else {
+				out[k++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(out, k);
+	}
+
+	private static Set<Long> trigrams(String text) {
+		Set<Long> trigrams = new LinkedHashSet<>();
+		for (int i = 0; i + 3 <= text.length(); i++) {
+			char c1 = text.charAt(i);
+			char c2 = text.charAt(i + 1);
+			char c3 = text.charAt(i + 2);
+			if (c1 == FIELD_SEPARATOR || c2 == FIELD_SEPARATOR || c3 == FIELD_SEPARATOR) {
+				continue;
+			}
+			trigrams.add(((long) c1 << 32) | ((long) c2 << 16) | c3);
+		}
+		return trigrams;
+	}
+
+	private static String key(DependencyCategory category, Dependency dependency) {
+		StringBuilder buf = new StringBuilder();
+		for (String field : new String[] { dependency.getId(), dependency.getName(), dependency.getDescription(),
+				dependency.getVersionRange(), category.getName() }) {
+			if (StringUtils.hasText(field)) {
+				buf.append(field.toLowerCase(Locale.ROOT));
+			}
+			buf.append(FIELD_SEPARATOR);
+		}
+		return buf.toString();
+	}
+}
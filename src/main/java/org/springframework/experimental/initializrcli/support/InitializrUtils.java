@@ -28,6 +28,23 @@ public abstract class InitializrUtils {
 
 	private final static VersionParser VERSION_PARSER_INSTANCE = new VersionParser(Collections.emptyList());
 
+	static VersionParser versionParser() {
+		return VERSION_PARSER_INSTANCE;
+	}
+
+	/**
+	 * Parse a version.
+	 *
+	 * @param version the version text
+	 * @return parsed version or {@code null} if text is not a valid version
+	 */
+	public static Version parseVersion(String version) {
+		if (!StringUtils.hasText(version)) {
+			return null;
+		}
+		return VERSION_PARSER_INSTANCE.safeParse(version);
+	}
+
 	public static boolean isDependencyCompatible(Dependency dependency, String version) {
 		if (!StringUtils.hasText(version) || !StringUtils.hasText(dependency.getVersionRange())) {
 			return true;
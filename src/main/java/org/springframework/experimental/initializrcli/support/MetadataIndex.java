@@ -0,0 +1,278 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.support;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.spring.initializr.generator.version.Version;
+import io.spring.initializr.generator.version.VersionParser;
+import io.spring.initializr.generator.version.VersionRange;
+
+import org.springframework.experimental.initializrcli.client.ProjectRequest;
+import org.springframework.experimental.initializrcli.client.model.Dependency;
+import org.springframework.experimental.initializrcli.client.model.IdName;
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Lookup structures built once from a {@link Metadata} so that requests can be
+ * validated and completed with defaults without walking metadata every time.
+ * Dependency version ranges are parsed once and compatibility with boot
+ * versions is kept as a bit set per boot version. Index is not cached here,
+ * {@link TargetHolder} keeps one for a metadata of a current client.
+ *
+ * @author Janne Valkealahti
+ */
+public class MetadataIndex {
+
+	private final Metadata metadata;
+	private final Set<String> types;
+	private final Set<String> languages;
+	private final Set<String> bootVersions;
+	private final Set<String> packagings;
+	private final Set<String> javaVersions;
+	private final Map<String, Integer> dependencyPositions;
+	private final Dependency[] dependencies;
+	private final VersionRange[] versionRanges;
+	private final Map<String, BitSet> compatibility;
+	private volatile DependencySearchIndex searchIndex;
+
+	private MetadataIndex(Metadata metadata) {
+		this.metadata = metadata;
+		this.types = ids(metadata.getType().getValues().stream()
+				.filter(v -> ObjectUtils.nullSafeEquals(v.getTags().get("format"), "project"))
+				.collect(Collectors.toList()));
+		this.languages = ids(metadata.getLanguage().getValues());
+		this.bootVersions = ids(metadata.getBootVersion().getValues());
+		this.packagings = ids(metadata.getPackaging().getValues());
+		this.javaVersions = ids(metadata.getJavaVersion().getValues());
+		this.dependencies = metadata.getDependencies().getValues().stream()
+				.flatMap(dc -> dc.getValues().stream())
+				.toArray(Dependency[]::new);
+		this.dependencyPositions = new HashMap<>(dependencies.length * 2);
+		this.versionRanges = new VersionRange[dependencies.length];
+		VersionParser parser = InitializrUtils.versionParser();
+		for (int i = 0; i < dependencies.length; i++) {
+			dependencyPositions.putIfAbsent(dependencies[i].getId(), i);
+			String range = dependencies[i].getVersionRange();
+			versionRanges[i] = StringUtils.hasText(range) ? parser.parseRange(range) : null;
+		}
+		// matrix is built upfront for known boot versions only so that any
+		// other given version can't grow it
+		this.compatibility = new HashMap<>(bootVersions.size() * 2);
+		for (String bootVersion : bootVersions) {
+			compatibility.put(bootVersion, buildCompatibility(bootVersion));
+		}
+	}
+
+	/**
+	 * Builds an index for a metadata.
+	 *
+	 * @param metadata the metadata
+	 * @return the index
+	 */
+	public static MetadataIndex of(Metadata metadata) {
+		return new MetadataIndex(metadata);
+	}
+
+	public Metadata getMetadata() {
+		return metadata;
+	}
+
+	/**
+	 * Gets a dependency by its id.
+	 *
+	 * @param id the dependency id
+	 * @return dependency or {@code null} if not known
+	 */
+	public Dependency getDependency(String id) {
+		Integer position = dependencyPositions.get(id);
+		return position != null ? dependencies[position] : null;
+	}
+
+	/**
+	 * Gets a dependency by its position in a metadata order.
+	 *
+	 * @param position the dependency position
+	 * @return the dependency
+	 */
+	public Dependency getDependency(int position) {
+		return dependencies[position];
+	}
+
+	/**
+	 * Gets a number of dependencies.
+	 *
+	 * @return the number of dependencies
+	 */
+	public int getDependencyCount() {
+		return dependencies.length;
+	}
+
+	/**
+	 * Gets a search index for dependencies. Index is built on a first call.
+	 *
+	 * @return the dependency search index
+	 */
+	public DependencySearchIndex getSearchIndex() {
+		DependencySearchIndex index = searchIndex;
+		if (index == null) {
+			synchronized (this) {
+				index = searchIndex;
+				if (index == null) {
+					index = new DependencySearchIndex(metadata);
+					searchIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Checks if a dependency is compatible with a boot version. Dependency is
+	 * always compatible if version is not set or dependency doesn't define a
+	 * version range.
+	 *
+	 * @param dependency the dependency
+	 * @param bootVersion the boot version
+	 * @return true if dependency is compatible
+	 */
+	public boolean isCompatible(Dependency dependency, String bootVersion) {
+		Integer position = dependencyPositions.get(dependency.getId());
+		if (position == null || dependencies[position] != dependency) {
+			// not from this metadata
+			return InitializrUtils.isDependencyCompatible(dependency, bootVersion);
+		}
+		if (!StringUtils.hasText(bootVersion)) {
+			return true;
+		}
+		return compatibleDependencies(bootVersion).get(position);
+	}
+
+	/**
+	 * Gets dependencies compatible with a boot version as a bit set where a bit
+	 * position is an index of a dependency in a metadata order. Returned bit set
+	 * is shared and must not be modified. Bit sets are kept for boot versions
+	 * in a metadata, other versions are computed on every call and if version
+	 * doesn't parse only dependencies without a version range are compatible.
+	 *
+	 * @param bootVersion the boot version
+	 * @return bit set of compatible dependencies
+	 */
+	public BitSet compatibleDependencies(String bootVersion) {
+		BitSet bits = compatibility.get(bootVersion);
+		return bits != null ? bits : buildCompatibility(bootVersion);
+	}
+
+	private BitSet buildCompatibility(String bootVersion) {
+		Version version = InitializrUtils.parseVersion(bootVersion);
+		BitSet bits = new BitSet(dependencies.length);
+		for (int i = 0; i < versionRanges.length; i++) {
+			if (versionRanges[i] == null || (version != null && versionRanges[i].match(version))) {
+				bits.set(i);
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Fill in values not set in a request with defaults from a metadata.
+	 *
+	 * @param request the project request
+	 */
+	public void applyDefaults(ProjectRequest request) {
+		if (request.getType() == null) {
+			request.setType(metadata.getType().getDefault());
+		}
+		if (request.getLanguage() == null) {
+			request.setLanguage(metadata.getLanguage().getDefault());
+		}
+		if (request.getBootVersion() == null) {
+			request.setBootVersion(metadata.getBootVersion().getDefaultversion());
+		}
+		if (request.getVersion() == null) {
+			request.setVersion(metadata.getVersion().getDefault());
+		}
+		if (request.getGroupId() == null) {
+			request.setGroupId(metadata.getGroupId().getDefault());
+		}
+		if (request.getArtifactId() == null) {
+			request.setArtifactId(metadata.getArtifactId().getDefault());
+		}
+		if (request.getName() == null) {
+			request.setName(metadata.getName().getDefault());
+		}
+		if (request.getDescription() == null) {
+			request.setDescription(metadata.getDescription().getDefault());
+		}
+		if (request.getPackageName() == null) {
+			request.setPackageName(metadata.getPackageName().getDefault());
+		}
+		if (request.getPackaging() == null) {
+			request.setPackaging(metadata.getPackaging().getDefault());
+		}
+		if (request.getJavaVersion() == null) {
+			request.setJavaVersion(metadata.getJavaVersion().getDefault());
+		}
+	}
+
+	/**
+	 * Validate a request against a metadata.
+	 *
+	 * @param request the project request
+	 * @return list of errors, empty if request is valid
+	 */
+	public List<String> validate(ProjectRequest request) {
+		List<String> errors = new ArrayList<>();
+		check(errors, "project", request.getType(), types);
+		check(errors, "language", request.getLanguage(), languages);
+		// ranges can only be checked against a known boot version
+		boolean knownBootVersion = check(errors, "bootVersion", request.getBootVersion(), bootVersions);
+		check(errors, "packaging", request.getPackaging(), packagings);
+		check(errors, "javaVersion", request.getJavaVersion(), javaVersions);
+		for (String id : request.getDependencies()) {
+			Dependency dependency = getDependency(id);
+			if (dependency == null) {
+				errors.add(String.format("Unknown dependency '%s'", id));
+			}
+			else if (knownBootVersion && !isCompatible(dependency, request.getBootVersion())) {
+				errors.add(String.format("Dependency '%s' requires Spring Boot %s", id, dependency.getVersionRange()));
+			}
+		}
+		return errors;
+	}
+
+	private static boolean check(List<String> errors, String field, String value, Set<String> ids) {
+		if (value != null && !ids.contains(value)) {
+			errors.add(String.format("Unknown %s '%s', expected one of %s", field, value, ids));
+			return false;
+		}
+		return true;
+	}
+
+	private static Set<String> ids(Collection<? extends IdName> values) {
+		return values.stream().map(IdName::getId).collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+}
@@ -15,24 +15,56 @@
  */
 package org.springframework.experimental.initializrcli.support;
 
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.experimental.initializrcli.client.InitializrClient;
+import org.springframework.experimental.initializrcli.client.MetadataCache;
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.experimental.initializrcli.config.InitializrCliProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.client.WebClient;
 
 @Component
-public class TargetHolder implements ApplicationEventPublisherAware {
+public class TargetHolder implements ApplicationEventPublisherAware, DisposableBean {
+
+	private final static Logger log = LoggerFactory.getLogger(TargetHolder.class);
+
+	// connections block on a network, keep them and their listeners out of a
+	// common pool
+	private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "target-connect");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	private Target target;
 
+	private volatile CompletableFuture<InitializrClient> client;
+
+	private volatile MetadataIndex metadataIndex;
+
+	private MetadataCache metadataCache;
+
 	private ApplicationEventPublisher applicationEventPublisher;
 
 	private WebClient.Builder webClientBuilder;
 
-	public TargetHolder(WebClient.Builder webClientBuilder) {
+	private InitializrCliProperties initializrCliProperties;
+
+	public TargetHolder(WebClient.Builder webClientBuilder, InitializrCliProperties initializrCliProperties) {
 		this.webClientBuilder = webClientBuilder;
+		this.initializrCliProperties = initializrCliProperties;
 	}
 
 	@Override
@@ -40,28 +72,130 @@ public class TargetHolder implements ApplicationEventPublisherAware {
 		this.applicationEventPublisher = applicationEventPublisher;
 	}
 
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
 	public Target getTarget() {
 		return target;
 	}
 
-	public void changeTarget(Target target) {
+	/**
+	 * Change a target. Connection to a new target is attempted on a background
+	 * and {@link InitializrClientUpdatedEvent} is published when it completes.
+	 *
+	 * @param target the target
+	 */
+	public synchronized void changeTarget(Target target) {
 		Assert.notNull(target, "The provided target must not be null.");
 		this.target = target;
 		attemptConnection();
 	}
 
-	private void attemptConnection() {
-		InitializrClient client = null;
+	/**
+	 * Gets a client for a current target. If connection is still in progress this
+	 * method waits for it to complete instead of starting a new one. Failed
+	 * connection is not kept and a new attempt is made on a next call.
+	 *
+	 * @return the client
+	 */
+	public InitializrClient getClient() {
+		CompletableFuture<InitializrClient> client = this.client;
+		Assert.state(client != null, "Target has not been set");
+		if (client.isCompletedExceptionally()) {
+			client = reconnect(client);
+		}
 		try {
-			InitializrClient c = InitializrClient.builder(webClientBuilder).target(target.getBaseUrl()).build();
-			c.connect();
-			client = c;
+			return client.join();
 		}
-		catch (Exception e) {
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
 			throw e;
 		}
-		finally {
+	}
+
+	/**
+	 * Gets a metadata index for a client of a current target.
+	 *
+	 * @return the metadata index
+	 * @see #getMetadataIndex(InitializrClient)
+	 */
+	public MetadataIndex getMetadataIndex() {
+		return getMetadataIndex(getClient());
+	}
+
+	/**
+	 * Gets a metadata index for a client. Index is kept for a latest metadata
+	 * so that it is built only once as long as metadata doesn't change.
+	 *
+	 * @param client the client
+	 * @return the metadata index
+	 */
+	public MetadataIndex getMetadataIndex(InitializrClient client) {
+		Metadata metadata = client.getMetadata();
+		MetadataIndex index = this.metadataIndex;
+		if (index == null || index.getMetadata() != metadata) {
+			index = MetadataIndex.of(metadata);
+			this.metadataIndex = index;
+		}
+		return index;
+	}
+
+	private synchronized CompletableFuture<InitializrClient> reconnect(CompletableFuture<InitializrClient> failed) {
+		if (this.client == failed) {
+			attemptConnection();
+		}
+		return this.client;
+	}
+
+	private void attemptConnection() {
+		String baseUrl = target.getBaseUrl();
+		InitializrCliProperties.Cache cache = initializrCliProperties.getCache();
+		InitializrCliProperties.Offline offline = initializrCliProperties.getOffline();
+		InitializrClient c = InitializrClient.builder(webClientBuilder)
+				.target(baseUrl)
+				.cacheDirectory(cache.isEnabled() ? cache.getDir() : null)
+				.metadataCache(cache.isEnabled() ? metadataCache(cache.getDir()) : null)
+				.archiveCacheMaxSize(cache.getArchiveMaxSize().toBytes())
+				.metadataSnapshot(offline.isEnabled() ? offline.getMetadata() : null)
+				.build();
+		CompletableFuture<InitializrClient> future = CompletableFuture.supplyAsync(() -> {
+			c.connect();
+			return c;
+		}, executor);
+		this.client = future;
+		// listeners run outside of a connection future so that their failures
+		// or slowness never affect a client returned from getClient()
+		future.whenCompleteAsync((client, e) -> {
+			if (e != null) {
+				log.debug("Connection to {} failed", baseUrl, e);
+			}
+			if (this.client == future) {
+				publishClientUpdated(client);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Gets a metadata cache shared by clients of all targets so that metadata
+	 * revalidated after a target change is not parsed again.
+	 */
+	private MetadataCache metadataCache(Path directory) {
+		if (metadataCache == null || !metadataCache.getDirectory().equals(directory)) {
+			metadataCache = new MetadataCache(directory);
+		}
+		return metadataCache;
+	}
+
+	private void publishClientUpdated(InitializrClient client) {
+		try {
 			applicationEventPublisher.publishEvent(new InitializrClientUpdatedEvent(client));
 		}
+		catch (RuntimeException e) {
+			log.warn("Handling of client update failed", e);
+		}
 	}
 }
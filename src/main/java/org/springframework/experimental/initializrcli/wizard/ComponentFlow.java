@@ -22,6 +22,13 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -43,9 +50,12 @@ import org.springframework.experimental.initializrcli.component.SingleItemSelect
 import org.springframework.experimental.initializrcli.component.StringInput;
 import org.springframework.experimental.initializrcli.component.StringInput.StringInputContext;
 import org.springframework.experimental.initializrcli.component.context.ComponentContext;
+import org.springframework.experimental.initializrcli.component.support.Matcher;
 import org.springframework.experimental.initializrcli.component.support.SelectorItem;
 import org.springframework.experimental.initializrcli.wizard.ComponentFlow.ComponentFlowResult;
 import org.springframework.shell.style.TemplateExecutor;
+import org.springframework.shell.style.ThemeResolver;
+import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -325,6 +335,29 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 		 */
 		SingleItemSelectorSpec selectItems(Map<String, String> selectItems);
 
+		/**
+		 * Sets a provider for select items computed from results of earlier
+		 * inputs. Provider is run in a background as soon as all given inputs have
+		 * values, while a user still answers other inputs, and is run again if
+		 * those values change. Provider gets a map of input ids to their values.
+		 *
+		 * @param provider the select items provider
+		 * @param inputs the ids of inputs provider depends on
+		 * @return a builder
+		 */
+		SingleItemSelectorSpec selectItemsProvider(Function<Map<String, Object>, Map<String, String>> provider,
+				String... inputs);
+
+		/**
+		 * Sets prebuilt selector items used as is instead of select items. Items
+		 * are not copied and are not sorted if comparator is not set, meaning a
+		 * same immutable list can be shared between runs.
+		 *
+		 * @param selectorItems the selector items
+		 * @return a builder
+		 */
+		SingleItemSelectorSpec selectorItems(List<SelectorItem<String>> selectorItems);
+
 		/**
 		 * Sets a {@link Comparator} for sorting items.
 		 *
@@ -333,6 +366,26 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 		 */
 		SingleItemSelectorSpec sort(Comparator<SelectorItem<String>> comparator);
 
+		/**
+		 * Sets a sort key extractor and a comparator for keys. Keys are computed
+		 * once per item before sorting which is useful when a key is expensive to
+		 * compute like a parsed version.
+		 *
+		 * @param <K> the sort key type
+		 * @param keyExtractor the sort key extractor
+		 * @param comparator the sort key comparator
+		 * @return a builder
+		 */
+		<K> SingleItemSelectorSpec sort(Function<SelectorItem<String>, K> keyExtractor, Comparator<? super K> comparator);
+
+		/**
+		 * Sets a {@link Matcher} used to filter and rank items.
+		 *
+		 * @param matcher the matcher
+		 * @return a builder
+		 */
+		SingleItemSelectorSpec matcher(Matcher matcher);
+
 		/**
 		 * Sets a renderer function.
 		 *
@@ -427,6 +480,40 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 		 */
 		MultiItemSelectorSpec selectItems(List<SelectItem> selectItems);
 
+		/**
+		 * Sets a provider for select items computed from results of earlier
+		 * inputs. Provider is run in a background as soon as all given inputs have
+		 * values, while a user still answers other inputs, and is run again if
+		 * those values change. Provider gets a map of input ids to their values.
+		 *
+		 * @param provider the select items provider
+		 * @param inputs the ids of inputs provider depends on
+		 * @return a builder
+		 */
+		MultiItemSelectorSpec selectItemsProvider(Function<Map<String, Object>, List<SelectItem>> provider,
+				String... inputs);
+
+		/**
+		 * Sets prebuilt selector items used as is instead of select items. Items
+		 * are not copied and are not sorted if comparator is not set, meaning a
+		 * same immutable list can be shared between runs.
+		 *
+		 * @param selectorItems the selector items
+		 * @return a builder
+		 */
+		MultiItemSelectorSpec selectorItems(List<SelectorItem<String>> selectorItems);
+
+		/**
+		 * Sets a provider for prebuilt selector items computed from results of
+		 * earlier inputs. Works like {@link #selectItemsProvider(Function, String...)}.
+		 *
+		 * @param provider the selector items provider
+		 * @param inputs the ids of inputs provider depends on
+		 * @return a builder
+		 */
+		MultiItemSelectorSpec selectorItemsProvider(Function<Map<String, Object>, List<SelectorItem<String>>> provider,
+				String... inputs);
+
 		/**
 		 * Sets a {@link Comparator} for sorting items.
 		 *
@@ -435,6 +522,26 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 		 */
 		MultiItemSelectorSpec sort(Comparator<SelectorItem<String>> comparator);
 
+		/**
+		 * Sets a sort key extractor and a comparator for keys. Keys are computed
+		 * once per item before sorting which is useful when a key is expensive to
+		 * compute like a parsed version.
+		 *
+		 * @param <K> the sort key type
+		 * @param keyExtractor the sort key extractor
+		 * @param comparator the sort key comparator
+		 * @return a builder
+		 */
+		<K> MultiItemSelectorSpec sort(Function<SelectorItem<String>, K> keyExtractor, Comparator<? super K> comparator);
+
+		/**
+		 * Sets a {@link Matcher} used to filter and rank items.
+		 *
+		 * @param matcher the matcher
+		 * @return a builder
+		 */
+		MultiItemSelectorSpec matcher(Matcher matcher);
+
 		/**
 		 * Sets a renderer function.
 		 *
@@ -545,6 +652,14 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 		 */
 		Builder templateExecutor(TemplateExecutor templateExecutor);
 
+		/**
+		 * Sets a {@link ThemeResolver}.
+		 *
+		 * @param themeResolver the theme resolver
+		 * @return a builder
+		 */
+		Builder themeResolver(ThemeResolver themeResolver);
+
 		/**
 		 * Builds instance of input wizard.
 		 *
@@ -564,6 +679,7 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 		private final HashSet<String> uniqueIds = new HashSet<>();
 		private ResourceLoader resourceLoader;
 		private TemplateExecutor templateExecutor;
+		private ThemeResolver themeResolver;
 
 		BaseBuilder(Terminal terminal) {
 			this.terminal = terminal;
@@ -571,8 +687,8 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 
 		@Override
 		public ComponentFlow build() {
-			return new DefaultComponentFlow(terminal, resourceLoader, templateExecutor, stringInputs, pathInputs,
-					singleItemSelectors, multiItemSelectors);
+			return new DefaultComponentFlow(terminal, resourceLoader, templateExecutor, themeResolver, stringInputs,
+					pathInputs, singleItemSelectors, multiItemSelectors);
 		}
 
 		@Override
@@ -607,6 +723,12 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 			return this;
 		}
 
+		@Override
+		public Builder themeResolver(ThemeResolver themeResolver) {
+			this.themeResolver = themeResolver;
+			return this;
+		}
+
 		void addStringInput(BaseStringInput input) {
 			checkUniqueId(input.getId());
 			input.setOrder(order.getAndIncrement());
@@ -639,6 +761,10 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 			return templateExecutor;
 		}
 
+		ThemeResolver getThemeResolver() {
+			return themeResolver;
+		}
+
 		private void checkUniqueId(String id) {
 			if (uniqueIds.contains(id)) {
 				throw new IllegalArgumentException(String.format("Component with id %s is already registered", id));
@@ -922,7 +1048,11 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 		private String resultValue;
 		private ResultMode resultMode;
 		private Map<String, String> selectItems = new HashMap<>();
+		private List<SelectorItem<String>> selectorItems;
+		private Prefetch<List<SelectorItem<String>>> selectorItemsPrefetch;
 		private Comparator<SelectorItem<String>> comparator;
+		private Function<List<SelectorItem<String>>, List<SelectorItem<String>>> sorter;
+		private Matcher matcher;
 		private Function<SingleItemSelectorContext<String, SelectorItem<String>>, List<AttributedString>> renderer;
 		private Integer maxItems;
 		private List<Consumer<SingleItemSelectorContext<String, SelectorItem<String>>>> preHandlers = new ArrayList<>();
@@ -964,12 +1094,38 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 			return this;
 		}
 
+		@Override
+		public SingleItemSelectorSpec selectItemsProvider(Function<Map<String, Object>, Map<String, String>> provider,
+				String... inputs) {
+			this.selectorItemsPrefetch = new Prefetch<>(provider.andThen(BaseSingleItemSelector::toSelectorItems)
+					.andThen(this::sortItems), inputs);
+			return this;
+		}
+
+		@Override
+		public SingleItemSelectorSpec selectorItems(List<SelectorItem<String>> selectorItems) {
+			this.selectorItems = selectorItems;
+			return this;
+		}
+
 		@Override
 		public SingleItemSelectorSpec sort(Comparator<SelectorItem<String>> comparator) {
 			this.comparator = comparator;
 			return this;
 		}
 
+		@Override
+		public <K> SingleItemSelectorSpec sort(Function<SelectorItem<String>, K> keyExtractor, Comparator<? super K> comparator) {
+			this.sorter = items -> SelectorItem.sortByKey(items, keyExtractor, comparator);
+			return this;
+		}
+
+		@Override
+		public SingleItemSelectorSpec matcher(Matcher matcher) {
+			this.matcher = matcher;
+			return this;
+		}
+
 		@Override
 		public SingleItemSelectorSpec renderer(Function<SingleItemSelectorContext<String, SelectorItem<String>>, List<AttributedString>> renderer) {
 			this.renderer = renderer;
@@ -1028,10 +1184,39 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 			return selectItems;
 		}
 
+		/**
+		 * Gets selector items for a run, either from a provider, prebuilt ones or
+		 * converted from select items.
+		 */
+		List<SelectorItem<String>> getSelectorItems(ComponentContext<?> context) {
+			if (selectorItemsPrefetch != null) {
+				return selectorItemsPrefetch.get(context);
+			}
+			return sortItems(selectorItems != null ? selectorItems : toSelectorItems(selectItems));
+		}
+
+		private List<SelectorItem<String>> sortItems(List<SelectorItem<String>> items) {
+			return sorter != null ? sorter.apply(items) : items;
+		}
+
+		Prefetch<List<SelectorItem<String>>> getSelectorItemsPrefetch() {
+			return selectorItemsPrefetch;
+		}
+
+		private static List<SelectorItem<String>> toSelectorItems(Map<String, String> selectItems) {
+			return selectItems.entrySet().stream()
+					.map(e -> SelectorItem.of(e.getKey(), e.getValue()))
+					.collect(Collectors.toList());
+		}
+
 		public Comparator<SelectorItem<String>> getComparator() {
 			return comparator;
 		}
 
+		public Matcher getMatcher() {
+			return matcher;
+		}
+
 		public Function<SingleItemSelectorContext<String, SelectorItem<String>>, List<AttributedString>> getRenderer() {
 			return renderer;
 		}
@@ -1113,7 +1298,11 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 		private List<String> resultValues = new ArrayList<>();
 		private ResultMode resultMode;
 		private List<SelectItem> selectItems = new ArrayList<>();
+		private List<SelectorItem<String>> selectorItems;
+		private Prefetch<List<SelectorItem<String>>> selectorItemsPrefetch;
 		private Comparator<SelectorItem<String>> comparator;
+		private Function<List<SelectorItem<String>>, List<SelectorItem<String>>> sorter;
+		private Matcher matcher;
 		private Function<MultiItemSelectorContext<String, SelectorItem<String>>, List<AttributedString>> renderer;
 		private Integer maxItems;
 		private List<Consumer<MultiItemSelectorContext<String, SelectorItem<String>>>> preHandlers = new ArrayList<>();
@@ -1149,12 +1338,45 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 			return this;
 		}
 
+		@Override
+		public MultiItemSelectorSpec selectItemsProvider(Function<Map<String, Object>, List<SelectItem>> provider,
+				String... inputs) {
+			this.selectorItemsPrefetch = new Prefetch<>(provider.andThen(BaseMultiItemSelector::toSelectorItems)
+					.andThen(this::sortItems), inputs);
+			return this;
+		}
+
+		@Override
+		public MultiItemSelectorSpec selectorItems(List<SelectorItem<String>> selectorItems) {
+			this.selectorItems = selectorItems;
+			return this;
+		}
+
+		@Override
+		public MultiItemSelectorSpec selectorItemsProvider(
+				Function<Map<String, Object>, List<SelectorItem<String>>> provider, String... inputs) {
+			this.selectorItemsPrefetch = new Prefetch<>(provider.andThen(this::sortItems), inputs);
+			return this;
+		}
+
 		@Override
 		public MultiItemSelectorSpec sort(Comparator<SelectorItem<String>> comparator) {
 			this.comparator = comparator;
 			return this;
 		}
 
+		@Override
+		public <K> MultiItemSelectorSpec sort(Function<SelectorItem<String>, K> keyExtractor, Comparator<? super K> comparator) {
+			this.sorter = items -> SelectorItem.sortByKey(items, keyExtractor, comparator);
+			return this;
+		}
+
+		@Override
+		public MultiItemSelectorSpec matcher(Matcher matcher) {
+			this.matcher = matcher;
+			return this;
+		}
+
 		@Override
 		public MultiItemSelectorSpec renderer(Function<MultiItemSelectorContext<String, SelectorItem<String>>, List<AttributedString>> renderer) {
 			this.renderer = renderer;
@@ -1213,10 +1435,39 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 			return selectItems;
 		}
 
+		/**
+		 * Gets selector items for a run, either from a provider, prebuilt ones or
+		 * converted from select items.
+		 */
+		List<SelectorItem<String>> getSelectorItems(ComponentContext<?> context) {
+			if (selectorItemsPrefetch != null) {
+				return selectorItemsPrefetch.get(context);
+			}
+			return sortItems(selectorItems != null ? selectorItems : toSelectorItems(selectItems));
+		}
+
+		private List<SelectorItem<String>> sortItems(List<SelectorItem<String>> items) {
+			return sorter != null ? sorter.apply(items) : items;
+		}
+
+		Prefetch<List<SelectorItem<String>>> getSelectorItemsPrefetch() {
+			return selectorItemsPrefetch;
+		}
+
+		private static List<SelectorItem<String>> toSelectorItems(List<SelectItem> selectItems) {
+			return selectItems.stream()
+					.map(si -> SelectorItem.of(si.name(), si.item(), si.enabled()))
+					.collect(Collectors.toList());
+		}
+
 		public Comparator<SelectorItem<String>> getComparator() {
 			return comparator;
 		}
 
+		public Matcher getMatcher() {
+			return matcher;
+		}
+
 		public Function<MultiItemSelectorContext<String, SelectorItem<String>>, List<AttributedString>> getRenderer() {
 			return renderer;
 		}
@@ -1278,13 +1529,15 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 		private final List<BaseMultiItemSelector> multiInputs;
 		private final ResourceLoader resourceLoader;
 		private final TemplateExecutor templateExecutor;
+		private final ThemeResolver themeResolver;
 
 		DefaultComponentFlow(Terminal terminal, ResourceLoader resourceLoader, TemplateExecutor templateExecutor,
-				List<BaseStringInput> stringInputs, List<BasePathInput> pathInputs,
+				ThemeResolver themeResolver, List<BaseStringInput> stringInputs, List<BasePathInput> pathInputs,
 				List<BaseSingleItemSelector> singleInputs, List<BaseMultiItemSelector> multiInputs) {
 			this.terminal = terminal;
 			this.resourceLoader = resourceLoader;
 			this.templateExecutor = templateExecutor;
+			this.themeResolver = themeResolver;
 			this.stringInputs = stringInputs;
 			this.pathInputs = pathInputs;
 			this.singleInputs = singleInputs;
@@ -1302,8 +1555,26 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 					.flatMap(oio -> oio)
 					.sorted(OrderComparator.INSTANCE)
 					.map(oio -> oio.getOperation());
-			ComponentContext<?> context = chain(ComponentContext.empty(), operations);
-			return new DefaultComponentFlowResult(context);
+			List<Prefetch<?>> prefetches = Stream
+					.concat(singleInputs.stream().map(BaseSingleItemSelector::getSelectorItemsPrefetch),
+							multiInputs.stream().map(BaseMultiItemSelector::getSelectorItemsPrefetch))
+					.filter(Objects::nonNull)
+					.collect(Collectors.toList());
+			if (prefetches.isEmpty()) {
+				return new DefaultComponentFlowResult(chain(ComponentContext.empty(), operations, prefetches, null));
+			}
+			ExecutorService executor = Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(r, "component-flow-prefetch");
+				thread.setDaemon(true);
+				return thread;
+			});
+			try {
+				return new DefaultComponentFlowResult(chain(ComponentContext.empty(), operations, prefetches, executor));
+			}
+			finally {
+				prefetches.forEach(Prefetch::reset);
+				executor.shutdownNow();
+			}
 		}
 
 		private Stream<OrderedInputOperation> stringInputsStream() {
@@ -1317,6 +1588,7 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 						StringInput selector = new StringInput(terminal, input.getName(), input.getDefaultValue());
 						selector.setResourceLoader(resourceLoader);
 						selector.setTemplateExecutor(templateExecutor);
+						selector.setThemeResolver(themeResolver);
 						if (StringUtils.hasText(input.getTemplateLocation())) {
 							selector.setTemplateLocation(input.getTemplateLocation());
 						}
@@ -1356,6 +1628,7 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 						PathInput selector = new PathInput(terminal, input.getName());
 						selector.setResourceLoader(resourceLoader);
 						selector.setTemplateExecutor(templateExecutor);
+						selector.setThemeResolver(themeResolver);
 						if (StringUtils.hasText(input.getTemplateLocation())) {
 							selector.setTemplateLocation(input.getTemplateLocation());
 						}
@@ -1387,13 +1660,12 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 						context.put(input.getId(), input.getResultValue());
 						return context;
 					}
-					List<SelectorItem<String>> selectorItems = input.getSelectItems().entrySet().stream()
-						.map(e -> SelectorItem.of(e.getKey(), e.getValue()))
-						.collect(Collectors.toList());
+					List<SelectorItem<String>> selectorItems = input.getSelectorItems(context);
 					SingleItemSelector<String, SelectorItem<String>> selector = new SingleItemSelector<>(terminal,
 							selectorItems, input.getName(), input.getComparator());
 					selector.setResourceLoader(resourceLoader);
 					selector.setTemplateExecutor(templateExecutor);
+					selector.setThemeResolver(themeResolver);
 					if (StringUtils.hasText(input.getTemplateLocation())) {
 						selector.setTemplateLocation(input.getTemplateLocation());
 					}
@@ -1403,6 +1675,9 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 					if (input.getMaxItems() != null) {
 						selector.setMaxItems(input.getMaxItems());
 					}
+					if (input.getMatcher() != null) {
+						selector.setMatcher(input.getMatcher());
+					}
 					if (input.isStoreResult()) {
 						selector.addPostRunHandler(c -> {
 							c.getValue().ifPresent(v -> {
@@ -1430,13 +1705,12 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 						context.put(input.getId(), input.getResultValues());
 						return context;
 					}
-					List<SelectorItem<String>> selectorItems = input.getSelectItems().stream()
-							.map(si -> SelectorItem.of(si.name(), si.item(), si.enabled()))
-							.collect(Collectors.toList());
+					List<SelectorItem<String>> selectorItems = input.getSelectorItems(context);
 					MultiItemSelector<String, SelectorItem<String>> selector = new MultiItemSelector<>(terminal,
 							selectorItems, input.getName(), input.getComparator());
 					selector.setResourceLoader(resourceLoader);
 					selector.setTemplateExecutor(templateExecutor);
+					selector.setThemeResolver(themeResolver);
 					if (StringUtils.hasText(input.getTemplateLocation())) {
 						selector.setTemplateLocation(input.getTemplateLocation());
 					}
@@ -1446,6 +1720,9 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 					if (input.getMaxItems() != null) {
 						selector.setMaxItems(input.getMaxItems());
 					}
+					if (input.getMatcher() != null) {
+						selector.setMatcher(input.getMatcher());
+					}
 					if (input.isStoreResult()) {
 						selector.addPostRunHandler(c -> {
 							c.put(input.getId(), c.getValues());
@@ -1464,14 +1741,92 @@ public interface ComponentFlow extends Wizard<ComponentFlowResult> {
 		}
 
 		private static ComponentContext<?> chain(ComponentContext<?> context,
-				Stream<Function<ComponentContext<?>, ComponentContext<?>>> operations) {
+				Stream<Function<ComponentContext<?>, ComponentContext<?>>> operations, List<Prefetch<?>> prefetches,
+				Executor executor) {
 			for (Function<ComponentContext<?>, ComponentContext<?>> operation : operations.collect(Collectors.toList())) {
 				context = operation.apply(context);
+				// values from this step may be what later steps were waiting for
+				for (Prefetch<?> prefetch : prefetches) {
+					prefetch.start(context, executor);
+				}
 			}
 			return context;
 		}
 	}
 
+	/**
+	 * Value computed from results of other inputs, started speculatively in a
+	 * background as soon as all inputs have values. A result is used only if
+	 * input values are still same when a value is needed, otherwise it's
+	 * discarded and computed again.
+	 */
+	static class Prefetch<R> {
+
+		private final Function<Map<String, Object>, R> provider;
+		private final String[] inputs;
+		private Map<String, Object> startedWith;
+		private CompletableFuture<R> future;
+
+		Prefetch(Function<Map<String, Object>, R> provider, String... inputs) {
+			Assert.notNull(provider, "provider must be set");
+			this.provider = provider;
+			this.inputs = inputs;
+		}
+
+		/**
+		 * Start computing a value if all inputs have values and those are not
+		 * same as with a previous start.
+		 */
+		void start(ComponentContext<?> context, Executor executor) {
+			Map<String, Object> values = values(context, false);
+			if (values == null || executor == null || values.equals(startedWith)) {
+				return;
+			}
+			if (future != null) {
+				future.cancel(false);
+			}
+			startedWith = values;
+			future = CompletableFuture.supplyAsync(() -> provider.apply(values), executor);
+		}
+
+		/**
+		 * Get a value using a speculative result if it was computed with
+		 * current input values.
+		 */
+		R get(ComponentContext<?> context) {
+			Map<String, Object> values = values(context, true);
+			if (future != null && values.equals(startedWith)) {
+				try {
+					return future.join();
+				}
+				catch (CancellationException | CompletionException e) {
+					// computed again below so that a possible error comes from a caller thread
+				}
+			}
+			return provider.apply(values);
+		}
+
+		void reset() {
+			if (future != null) {
+				future.cancel(false);
+			}
+			future = null;
+			startedWith = null;
+		}
+
+		private Map<String, Object> values(ComponentContext<?> context, boolean allowMissing) {
+			Map<String, Object> values = new HashMap<>();
+			for (String input : inputs) {
+				Object value = context.get(input);
+				if (value == null && !allowMissing) {
+					return null;
+				}
+				values.put(input, value);
+			}
+			return values;
+		}
+	}
+
 	static class OrderedInputOperation implements Ordered {
 
 		private int order;
@@ -50,6 +50,7 @@ public abstract class AbstractShellTests {
 	private ByteArrayOutputStream consoleOut;
 	private Terminal terminal;
 	private TemplateExecutor templateExecutor;
+	private ThemeResolver themeResolver;
     private ResourceLoader resourceLoader;
 
 	@BeforeEach
@@ -72,7 +73,7 @@ public abstract class AbstractShellTests {
 				return ThemeSettings.themeSettings();
 			}
 		});
-		ThemeResolver themeResolver = new ThemeResolver(themeRegistry, "default");
+		themeResolver = new ThemeResolver(themeRegistry, "default");
 		templateExecutor = new TemplateExecutor(themeResolver);
 
         resourceLoader = new DefaultResourceLoader();
@@ -117,6 +118,10 @@ public abstract class AbstractShellTests {
         return templateExecutor;
     }
 
+    protected ThemeResolver getThemeResolver() {
+        return themeResolver;
+    }
+
     protected class TestBuffer {
         private final ByteArrayOutputStream out = new ByteArrayOutputStream();
 
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jline.terminal.Terminal;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.experimental.initializrcli.AbstractShellTests;
+import org.springframework.experimental.initializrcli.client.InitializrClient;
+import org.springframework.experimental.initializrcli.client.ProjectRequest;
+import org.springframework.experimental.initializrcli.client.StubInitializrServer;
+import org.springframework.experimental.initializrcli.command.GenerateCommands;
+import org.springframework.experimental.initializrcli.config.InitializrCliProperties;
+import org.springframework.experimental.initializrcli.support.Target;
+import org.springframework.experimental.initializrcli.support.TargetHolder;
+import org.springframework.shell.style.TemplateExecutor;
+import org.springframework.shell.style.ThemeResolver;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End to end latency benchmarks of a client against a local stub server.
+ * Excluded from a default test run and run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class InitializrClientBenchmarkTests extends AbstractShellTests {
+
+	private final static String PAYLOAD = "src/main/resources/static/payload.bin";
+	private final AtomicInteger runs = new AtomicInteger();
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testConnect() throws Exception {
+		try (StubInitializrServer server = StubInitializrServer.builder().build().start()) {
+			LatencyRecorder.run("connect", () -> {
+				InitializrClient client = client(server, null);
+				client.connect();
+				assertThat(client.getMetadata().getBootVersion().getValues()).isNotEmpty();
+				return (long) server.getMetadataSize();
+			});
+		}
+	}
+
+	@Test
+	public void testConnectRevalidated() throws Exception {
+		try (StubInitializrServer server = StubInitializrServer.builder().build().start()) {
+			Path cacheDirectory = tempDir.resolve("cache");
+			client(server, cacheDirectory).connect();
+			LatencyRecorder.run("connectRevalidated", () -> {
+				client(server, cacheDirectory).connect();
+				return 0L;
+			});
+		}
+	}
+
+	@Test
+	public void testConnectWithFailures() throws Exception {
+		try (StubInitializrServer server = StubInitializrServer.builder().failEvery(2).build().start()) {
+			LatencyRecorder.run("connectWithFailures", () -> {
+				InitializrClient client = client(server, null);
+				try {
+					client.connect();
+				}
+				catch (RuntimeException e) {
+					// failed load is retried on a next call
+					client.connect();
+				}
+				return (long) server.getMetadataSize();
+			});
+			assertThat(server.getFailures()).isGreaterThan(0);
+		}
+	}
+
+	@Test
+	public void testGenerate() throws Exception {
+		try (StubInitializrServer server = StubInitializrServer.builder().archivePayloadSize(1024 * 1024).build()
+				.start()) {
+			InitializrClient client = client(server, null);
+			client.connect();
+			LatencyRecorder.run("generate", () -> {
+				Path outputDirectory = nextDirectory();
+				client.generate(request(), outputDirectory);
+				assertThat(outputDirectory.resolve(PAYLOAD)).exists();
+				return (long) server.getArchiveSize();
+			});
+		}
+	}
+
+	@Test
+	public void testGenerateThrottled() throws Exception {
+		try (StubInitializrServer server = StubInitializrServer.builder()
+				.archivePayloadSize(256 * 1024)
+				.latency(Duration.ofMillis(20))
+				.bandwidth(4 * 1024 * 1024)
+				.build().start()) {
+			InitializrClient client = client(server, null);
+			client.connect();
+			LatencyRecorder.run("generateThrottled", () -> {
+				client.generate(request(), nextDirectory());
+				return (long) server.getArchiveSize();
+			});
+		}
+	}
+
+	@Test
+	public void testGenerateCachedArchive() throws Exception {
+		try (StubInitializrServer server = StubInitializrServer.builder().archivePayloadSize(1024 * 1024).build()
+				.start()) {
+			InitializrClient client = client(server, tempDir.resolve("cache"));
+			client.connect();
+			LatencyRecorder.run("generateCachedArchive", () -> {
+				Path outputDirectory = nextDirectory();
+				client.generate(request(), outputDirectory);
+				return Files.size(outputDirectory.resolve(PAYLOAD));
+			});
+			// metadata and a first archive
+			assertThat(server.getRequests()).isEqualTo(2);
+		}
+	}
+
+	@Test
+	public void testInitCommand() throws Exception {
+		ExecutorService service = Executors.newSingleThreadExecutor();
+		try (StubInitializrServer server = StubInitializrServer.builder().build().start();
+				AnnotationConfigApplicationContext context = commandContext(server)) {
+			GenerateCommands commands = context.getBean(GenerateCommands.class);
+			LatencyRecorder.run("init", () -> {
+				Path outputDirectory = nextDirectory();
+				// everything but a path is given so only a path input is shown
+				Future<String> result = service.submit(() -> commands.init(null, "maven-project", "java", "2.6.3",
+						"0.0.1-SNAPSHOT", "com.example", "demo", "demo", "Demo project", "com.example.demo",
+						Arrays.asList("web"), "jar", "11", false));
+				write(new TestBuffer(outputDirectory.toString()).cr().getBytes());
+				assertThat(result.get(10, TimeUnit.SECONDS)).contains("Extracted to");
+				return (long) server.getArchiveSize();
+			});
+		}
+		finally {
+			service.shutdownNow();
+		}
+	}
+
+	private AnnotationConfigApplicationContext commandContext(StubInitializrServer server) {
+		InitializrCliProperties properties = new InitializrCliProperties();
+		properties.getCache().setEnabled(false);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.registerBean(Terminal.class, this::getTerminal);
+		context.registerBean(TemplateExecutor.class, this::getTemplateExecutor);
+		context.registerBean(ThemeResolver.class, this::getThemeResolver);
+		context.registerBean(WebClient.Builder.class, WebClient::builder);
+		context.registerBean(InitializrCliProperties.class, () -> properties);
+		context.registerBean(TargetHolder.class);
+		context.registerBean(GenerateCommands.class);
+		context.refresh();
+		context.getBean(TargetHolder.class).changeTarget(new Target(server.getBaseUrl()));
+		return context;
+	}
+
+	private static InitializrClient client(StubInitializrServer server, Path cacheDirectory) {
+		return InitializrClient.builder(WebClient.builder())
+				.target(server.getBaseUrl())
+				.cacheDirectory(cacheDirectory)
+				.build();
+	}
+
+	private static ProjectRequest request() {
+		ProjectRequest request = new ProjectRequest();
+		request.setType("maven-project");
+		request.setLanguage("java");
+		request.setBootVersion("2.6.3");
+		request.setDependencies(Arrays.asList("web"));
+		return request;
+	}
+
+	private Path nextDirectory() {
+		return tempDir.resolve("project" + runs.incrementAndGet());
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs an operation repeatedly and records its latencies and transferred
+ * bytes. Number of iterations can be changed with {@code benchmark.warmups}
+ * and {@code benchmark.iterations} system properties and a p99 budget in
+ * milliseconds for a named benchmark with {@code benchmark.budget.<name>}.
+ *
+ * @author Janne Valkealahti
+ */
+class LatencyRecorder {
+
+	private final String name;
+	private final long[] nanos;
+	private long bytes;
+	private int count;
+
+	private LatencyRecorder(String name, int iterations) {
+		this.name = name;
+		this.nanos = new long[iterations];
+	}
+
+	/**
+	 * Run an operation returning a number of bytes it transferred.
+	 *
+	 * @param name the benchmark name
+	 * @param operation the operation
+	 * @return the recorder
+	 * @throws Exception if operation fails
+	 */
+	static LatencyRecorder run(String name, Callable<Long> operation) throws Exception {
+		int warmups = Integer.getInteger("benchmark.warmups", 10);
+		int iterations = Integer.getInteger("benchmark.iterations", 50);
+		for (int i = 0; i < warmups; i++) {
+			operation.call();
+		}
+		LatencyRecorder recorder = new LatencyRecorder(name, iterations);
+		for (int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			long transferred = operation.call();
+			recorder.record(System.nanoTime() - start, transferred);
+		}
+		System.out.println(recorder.report());
+		recorder.assertWithinBudget();
+		return recorder;
+	}
+
+	void record(long elapsedNanos, long transferred) {
+		nanos[count++] = elapsedNanos;
+		bytes += transferred;
+	}
+
+	/**
+	 * Gets a latency percentile using a nearest rank.
+	 *
+	 * @param percentile the percentile between 0 and 100
+	 * @return the latency in nanos
+	 */
+	long percentile(double percentile) {
+		long[] sorted = Arrays.copyOf(nanos, count);
+		Arrays.sort(sorted);
+		int rank = (int) Math.ceil(percentile / 100 * count);
+		return sorted[Math.max(0, Math.min(count - 1, rank - 1))];
+	}
+
+	double bytesPerSecond() {
+		long total = Arrays.stream(nanos, 0, count).sum();
+		return total > 0 ? bytes / (total / 1e9) : 0;
+	}
+
+	String report() {
+		return String.format("%s: n=%d p50=%.2fms p99=%.2fms throughput=%.2fMB/s", name, count,
+				percentile(50) / 1e6, percentile(99) / 1e6, bytesPerSecond() / (1024 * 1024));
+	}
+
+	private void assertWithinBudget() {
+		Long budget = Long.getLong("benchmark.budget." + name);
+		if (budget != null) {
+			assertThat(TimeUnit.NANOSECONDS.toMillis(percentile(99))).as(report()).isLessThanOrEqualTo(budget);
+		}
+	}
+}
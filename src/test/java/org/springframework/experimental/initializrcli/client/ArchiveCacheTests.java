@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.client;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArchiveCacheTests {
+
+	private final static String URL1 = "https://start1.example.com";
+	private final static String URL2 = "https://start2.example.com";
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testStoreAndHit() throws IOException {
+		ArchiveCache cache = new ArchiveCache(tempDir, 1024);
+		assertThat(cache.get(URL1, "v1", request("web", "actuator"))).isEmpty();
+		store(cache, URL1, "v1", request("web", "actuator"), "content");
+
+		// dependency order doesn't matter
+		Optional<Path> archive = cache.get(URL1, "v1", request("actuator", "web"));
+		assertThat(archive).isPresent();
+		assertThat(archive.get()).hasContent("content");
+		assertThat(cache.get(URL1, "v1", request("web"))).isEmpty();
+		assertThat(cache.get(URL1, "v2", request("web", "actuator"))).isEmpty();
+		assertThat(cache.get(URL2, "v1", request("web", "actuator"))).isEmpty();
+	}
+
+	@Test
+	public void testDiscard() throws IOException {
+		ArchiveCache cache = new ArchiveCache(tempDir, 1024);
+		Path tempFile = cache.createTempFile(URL1, "v1");
+		assertThat(tempFile).exists();
+		cache.discard(tempFile);
+		assertThat(tempFile).doesNotExist();
+		assertThat(cache.get(URL1, "v1", request("web"))).isEmpty();
+	}
+
+	@Test
+	public void testPurgesOnlyOlderVersionsOfSameTarget() throws IOException {
+		ArchiveCache cache = new ArchiveCache(tempDir, 1024);
+		store(cache, URL1, "v1", request("web"), "url1v1");
+		store(cache, URL2, "v1", request("web"), "url2v1");
+		store(cache, URL1, "v2", request("web"), "url1v2");
+
+		assertThat(cache.get(URL1, "v1", request("web"))).isEmpty();
+		assertThat(cache.get(URL1, "v2", request("web"))).isPresent();
+		assertThat(cache.get(URL2, "v1", request("web"))).isPresent();
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsedOverTotalSize() throws IOException {
+		// room for two archives of four bytes across all targets
+		ArchiveCache cache = new ArchiveCache(tempDir, 10);
+		long now = System.currentTimeMillis();
+		Path first = store(cache, URL1, "v1", request("web"), "1111");
+		Files.setLastModifiedTime(first, FileTime.fromMillis(now - 20000));
+		Path second = store(cache, URL2, "v1", request("web"), "2222");
+		Files.setLastModifiedTime(second, FileTime.fromMillis(now - 10000));
+
+		// a hit makes first most recently used
+		assertThat(cache.get(URL1, "v1", request("web"))).isPresent();
+		store(cache, URL1, "v1", request("webflux"), "3333");
+
+		assertThat(cache.get(URL1, "v1", request("web"))).isPresent();
+		assertThat(cache.get(URL2, "v1", request("web"))).isEmpty();
+		assertThat(cache.get(URL1, "v1", request("webflux"))).isPresent();
+	}
+
+	private static Path store(ArchiveCache cache, String baseUrl, String version, ProjectRequest request,
+			String content) throws IOException {
+		Path tempFile = cache.createTempFile(baseUrl, version);
+		Files.writeString(tempFile, content);
+		cache.commit(baseUrl, version, request, tempFile);
+		return cache.get(baseUrl, version, request).get();
+	}
+
+	private static ProjectRequest request(String... dependencies) {
+		ProjectRequest request = new ProjectRequest();
+		request.setDependencies(Arrays.asList(dependencies));
+		return request;
+	}
+}
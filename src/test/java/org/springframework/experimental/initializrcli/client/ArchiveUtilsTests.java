@@ -0,0 +1,230 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.awaitility.Awaitility.await;
+
+public class ArchiveUtilsTests {
+
+	private final static int CHUNK_SIZE = 1024;
+
+	private final NettyDataBufferFactory factory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+	private final List<NettyDataBuffer> emitted = Collections.synchronizedList(new ArrayList<>());
+	private final AtomicBoolean cancelled = new AtomicBoolean();
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testExtractMultiBufferArchive() throws IOException {
+		byte[] payload = random(100 * 1024);
+		byte[] archive = tgz(
+				new Entry("demo/", 0, null),
+				new Entry("demo/pom.xml", 0644, "<project/>".getBytes(StandardCharsets.UTF_8)),
+				new Entry("demo/src/main/resources/payload.bin", 0644, payload));
+		Flux<DataBuffer> buffers = buffers(archive);
+
+		ArchiveUtils.extractTarGz(buffers, tempDir);
+
+		assertThat(emitted.size()).isGreaterThan(10);
+		assertThat(tempDir.resolve("demo")).isDirectory();
+		assertThat(tempDir.resolve("demo/pom.xml")).hasContent("<project/>");
+		assertThat(Files.readAllBytes(tempDir.resolve("demo/src/main/resources/payload.bin"))).isEqualTo(payload);
+		assertThat(cancelled).isFalse();
+		assertReleased();
+	}
+
+	@Test
+	public void testKeepsExecutableBit() throws IOException {
+		assumeThat(FileSystems.getDefault().supportedFileAttributeViews()).contains("posix");
+		byte[] archive = tgz(
+				new Entry("mvnw", 0755, "#!/bin/sh\n".getBytes(StandardCharsets.UTF_8)),
+				new Entry("pom.xml", 0644, "<project/>".getBytes(StandardCharsets.UTF_8)));
+
+		ArchiveUtils.extractTarGz(buffers(archive), tempDir);
+
+		assertThat(Files.isExecutable(tempDir.resolve("mvnw"))).isTrue();
+		assertThat(Files.isExecutable(tempDir.resolve("pom.xml"))).isFalse();
+	}
+
+	@Test
+	public void testRejectsEntryOutsideDirectory() throws IOException {
+		Path outputDirectory = tempDir.resolve("out");
+		byte[] archive = tgz(new Entry("../evil.txt", 0644, "evil".getBytes(StandardCharsets.UTF_8)));
+
+		assertThatThrownBy(() -> ArchiveUtils.extractTarGz(buffers(archive), outputDirectory))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("../evil.txt is outside of");
+		assertThat(tempDir.resolve("evil.txt")).doesNotExist();
+	}
+
+	@Test
+	public void testNoFurtherReadsAfterError() throws IOException {
+		// a bad entry first and then a large incompressible one
+		byte[] archive = tgz(
+				new Entry("../evil.txt", 0644, "evil".getBytes(StandardCharsets.UTF_8)),
+				new Entry("payload.bin", 0644, random(512 * 1024)));
+		int total = (archive.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+		assertThatThrownBy(() -> ArchiveUtils.extractTarGz(buffers(archive), tempDir.resolve("out")))
+				.isInstanceOf(IOException.class);
+
+		// subscription is cancelled right away instead of draining an archive
+		assertThat(cancelled).isTrue();
+		assertThat(emitted.size()).isLessThan(total / 4);
+		assertReleased();
+	}
+
+	@Test
+	public void testInterruptCancelsWaitingForData() throws Exception {
+		byte[] archive = tgz(new Entry("payload.bin", 0644, random(64 * 1024)));
+		// half of an archive arrives and then nothing
+		Flux<DataBuffer> buffers = tracked(Flux.concat(chunks(Arrays.copyOf(archive, archive.length / 2)),
+				Flux.never()));
+		ExecutorService service = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> future = service.submit(() -> {
+				ArchiveUtils.extractTarGz(buffers, tempDir);
+				return null;
+			});
+			await().atMost(Duration.ofSeconds(4)).until(() -> emitted.size() > 0);
+			future.cancel(true);
+			await().atMost(Duration.ofSeconds(4)).untilTrue(cancelled);
+		}
+		finally {
+			service.shutdownNow();
+			assertThat(service.awaitTermination(4, TimeUnit.SECONDS)).isTrue();
+		}
+		assertReleased();
+	}
+
+	@Test
+	public void testDownloadErrorIsReported() {
+		byte[] archive = tgz(new Entry("payload.bin", 0644, random(64 * 1024)));
+		Flux<DataBuffer> buffers = tracked(Flux.concat(chunks(Arrays.copyOf(archive, archive.length / 2)),
+				Flux.error(new IllegalStateException("connection reset"))));
+
+		assertThatThrownBy(() -> ArchiveUtils.extractTarGz(buffers, tempDir))
+				.isInstanceOf(IOException.class)
+				.hasRootCauseMessage("connection reset");
+		assertReleased();
+	}
+
+	private Flux<DataBuffer> buffers(byte[] archive) {
+		return tracked(chunks(archive));
+	}
+
+	private Flux<DataBuffer> tracked(Flux<DataBuffer> buffers) {
+		return buffers.doOnCancel(() -> cancelled.set(true));
+	}
+
+	/**
+	 * Splits an archive into buffers which are recorded when emitted.
+	 */
+	private Flux<DataBuffer> chunks(byte[] archive) {
+		List<byte[]> chunks = new ArrayList<>();
+		for (int i = 0; i < archive.length; i += CHUNK_SIZE) {
+			chunks.add(Arrays.copyOfRange(archive, i, Math.min(archive.length, i + CHUNK_SIZE)));
+		}
+		return Flux.fromIterable(chunks)
+				.map(chunk -> {
+					NettyDataBuffer buffer = factory.wrap(chunk);
+					emitted.add(buffer);
+					return (DataBuffer) buffer;
+				});
+	}
+
+	private void assertReleased() {
+		synchronized (emitted) {
+			for (NettyDataBuffer buffer : emitted) {
+				assertThat(buffer.getNativeBuffer().refCnt()).isZero();
+			}
+		}
+	}
+
+	private static byte[] random(int size) {
+		byte[] bytes = new byte[size];
+		new Random(0).nextBytes(bytes);
+		return bytes;
+	}
+
+	private static byte[] tgz(Entry... entries) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(out))) {
+			for (Entry entry : entries) {
+				TarArchiveEntry tarEntry = new TarArchiveEntry(entry.name);
+				if (entry.content != null) {
+					tarEntry.setMode(entry.mode);
+					tarEntry.setSize(entry.content.length);
+				}
+				tar.putArchiveEntry(tarEntry);
+				if (entry.content != null) {
+					tar.write(entry.content);
+				}
+				tar.closeArchiveEntry();
+			}
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return out.toByteArray();
+	}
+
+	private static class Entry {
+		final String name;
+		final int mode;
+		final byte[] content;
+
+		Entry(String name, int mode, byte[] content) {
+			this.name = name;
+			this.mode = mode;
+			this.content = content;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InitializrClientTests {
+
+	private final static int CALLERS = 16;
+
+	@Test
+	public void testConcurrentCallsMakeOneRequest() throws Exception {
+		// latency keeps a request in flight while all callers arrive
+		try (StubInitializrServer server = StubInitializrServer.builder().latency(Duration.ofMillis(300)).build()
+				.start()) {
+			InitializrClient client = client(server);
+			ExecutorService service = Executors.newFixedThreadPool(CALLERS);
+			try {
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<Metadata>> results = new ArrayList<>();
+				for (int i = 0; i < CALLERS; i++) {
+					results.add(service.submit(() -> {
+						start.await();
+						return client.getMetadata();
+					}));
+				}
+				start.countDown();
+				Metadata metadata = results.get(0).get(10, TimeUnit.SECONDS);
+				assertThat(metadata).isNotNull();
+				for (Future<Metadata> result : results) {
+					assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(metadata);
+				}
+			}
+			finally {
+				service.shutdownNow();
+			}
+			assertThat(server.getRequests()).isEqualTo(1);
+			assertThat(client.getMetadata()).isSameAs(client.getMetadata());
+			assertThat(server.getRequests()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void testFailedLoadRetriedOnNextCall() {
+		try (StubInitializrServer server = StubInitializrServer.builder().failEvery(2).build().start()) {
+			// first request succeeds so that a next one fails
+			client(server).connect();
+			InitializrClient client = client(server);
+
+			assertThatThrownBy(() -> client.getMetadata()).isInstanceOf(WebClientResponseException.class);
+			assertThat(server.getFailures()).isEqualTo(1);
+
+			Metadata metadata = client.getMetadata();
+			assertThat(metadata.getBootVersion().getDefaultversion()).isEqualTo("2.6.3");
+			assertThat(client.getMetadata()).isSameAs(metadata);
+			assertThat(server.getRequests()).isEqualTo(3);
+		}
+	}
+
+	private static InitializrClient client(StubInitializrServer server) {
+		return InitializrClient.builder(WebClient.builder())
+				.target(server.getBaseUrl())
+				.build();
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.experimental.initializrcli.client.InitializrClient.OfflineInitializrClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LocalProjectGeneratorTests {
+
+	@TempDir
+	Path tempDir;
+
+	private InitializrClient client;
+	private Path outputDirectory;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		// stub metadata with coordinates added like in an offline snapshot
+		ObjectMapper objectMapper = new ObjectMapper();
+		JsonNode metadata;
+		try (InputStream in = new ClassPathResource("stub/metadata-v2.2.json").getInputStream()) {
+			metadata = objectMapper.readTree(in);
+		}
+		for (JsonNode category : metadata.path("dependencies").path("values")) {
+			for (JsonNode dependency : category.path("values")) {
+				ObjectNode node = (ObjectNode) dependency;
+				switch (node.path("id").asText()) {
+					case "web":
+						node.put("groupId", "org.springframework.boot");
+						node.put("artifactId", "spring-boot-starter-web");
+						break;
+					case "h2":
+						node.put("groupId", "com.h2database");
+						node.put("artifactId", "h2");
+						node.put("scope", "runtime");
+						break;
+					case "devtools":
+						node.put("groupId", "org.springframework.boot");
+						node.put("artifactId", "spring-boot-devtools");
+						node.put("scope", "test");
+						break;
+					case "native":
+						node.put("groupId", "org.springframework.experimental");
+						node.put("artifactId", "spring-native");
+						node.put("version", "0.11.2");
+						break;
+					case "actuator":
+						// only a group, not usable offline
+						node.put("groupId", "org.springframework.boot");
+						break;
+					default:
+						break;
+				}
+			}
+		}
+		Path snapshot = tempDir.resolve("metadata.json");
+		objectMapper.writeValue(snapshot.toFile(), metadata);
+		client = new OfflineInitializrClient(snapshot);
+		outputDirectory = tempDir.resolve("demo");
+	}
+
+	@Test
+	public void testPomCoordinatesAndScopes() throws IOException {
+		ProjectRequest request = new ProjectRequest();
+		request.setGroupId("org.example");
+		request.setArtifactId("app");
+		request.setJavaVersion("17");
+		request.setDependencies(Arrays.asList("web", "h2", "devtools", "native"));
+		client.generate(request, outputDirectory);
+
+		String pom = Files.readString(outputDirectory.resolve("pom.xml"));
+		assertThat(pom).contains("<artifactId>spring-boot-starter-parent</artifactId>", "<version>2.6.3</version>",
+				"<groupId>org.example</groupId>", "<artifactId>app</artifactId>",
+				"<version>0.0.1-SNAPSHOT</version>", "<java.version>17</java.version>");
+		assertThat(dependency(pom, "spring-boot-starter-web")).contains("<groupId>org.springframework.boot</groupId>")
+				.doesNotContain("<scope>", "<version>");
+		assertThat(dependency(pom, "h2")).contains("<groupId>com.h2database</groupId>", "<scope>runtime</scope>");
+		assertThat(dependency(pom, "spring-boot-devtools")).contains("<scope>test</scope>");
+		assertThat(dependency(pom, "spring-native")).contains("<version>0.11.2</version>").doesNotContain("<scope>");
+		assertThat(dependency(pom, "spring-boot-starter-test")).contains("<scope>test</scope>");
+		// plain starter is only added when there are no other dependencies
+		assertThat(pom).doesNotContain("<artifactId>spring-boot-starter</artifactId>");
+		assertThat(pom).contains("<artifactId>spring-boot-maven-plugin</artifactId>");
+
+		assertThat(outputDirectory.resolve("src/main/java/com/example/demo/DemoApplication.java")).isRegularFile();
+		assertThat(outputDirectory.resolve("src/test/java/com/example/demo/DemoApplicationTests.java"))
+				.isRegularFile();
+		assertThat(outputDirectory.resolve("src/main/resources/application.properties")).isRegularFile();
+	}
+
+	@Test
+	public void testDefaultsWithoutDependencies() throws IOException {
+		client.generate(new ProjectRequest(), outputDirectory);
+
+		String pom = Files.readString(outputDirectory.resolve("pom.xml"));
+		assertThat(pom).contains("<groupId>com.example</groupId>", "<artifactId>demo</artifactId>",
+				"<java.version>11</java.version>");
+		assertThat(dependency(pom, "spring-boot-starter")).doesNotContain("<scope>");
+		assertThat(outputDirectory.resolve("src/main/java/com/example/demo/ServletInitializer.java")).doesNotExist();
+	}
+
+	@Test
+	public void testWarPackaging() throws IOException {
+		ProjectRequest request = new ProjectRequest();
+		request.setPackaging("war");
+		client.generate(request, outputDirectory);
+
+		String pom = Files.readString(outputDirectory.resolve("pom.xml"));
+		assertThat(pom).contains("<packaging>war</packaging>");
+		assertThat(dependency(pom, "spring-boot-starter-tomcat")).contains("<scope>provided</scope>");
+		assertThat(outputDirectory.resolve("src/main/java/com/example/demo/ServletInitializer.java")).isRegularFile();
+	}
+
+	@Test
+	public void testDependenciesWithoutCoordinates() {
+		ProjectRequest request = new ProjectRequest();
+		request.setDependencies(Arrays.asList("web", "foo", "actuator", "lombok"));
+		assertThatThrownBy(() -> client.generate(request, outputDirectory))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("No coordinates for dependencies foo, actuator, lombok in offline metadata");
+		assertThat(outputDirectory).doesNotExist();
+	}
+
+	@Test
+	public void testOnlyMavenWithJava() {
+		ProjectRequest gradle = new ProjectRequest();
+		gradle.setType("gradle-project");
+		assertThatThrownBy(() -> client.generate(gradle, outputDirectory))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Only maven-project with java is supported offline, was gradle-project with java");
+
+		ProjectRequest kotlin = new ProjectRequest();
+		kotlin.setLanguage("kotlin");
+		assertThatThrownBy(() -> client.generate(kotlin, outputDirectory))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Only maven-project with java is supported offline, was maven-project with kotlin");
+		assertThat(outputDirectory).doesNotExist();
+	}
+
+	@Test
+	public void testNoRepositoriesForRelease() throws IOException {
+		String pom = generate("2.6.3");
+		assertThat(pom).doesNotContain("<repositories>", "<pluginRepositories>");
+	}
+
+	@Test
+	public void testMilestoneRepositories() throws IOException {
+		String pom = generate("2.7.0-M1");
+		assertThat(pom).contains("<repositories>", "<pluginRepositories>", "<id>spring-milestones</id>",
+				"<url>https://repo.spring.io/milestone</url>");
+		assertThat(pom).doesNotContain("spring-snapshots");
+		assertThat(count(pom, "<id>spring-milestones</id>")).isEqualTo(2);
+	}
+
+	@Test
+	public void testSnapshotRepositories() throws IOException {
+		String pom = generate("2.7.0-SNAPSHOT");
+		assertThat(pom).contains("<url>https://repo.spring.io/milestone</url>",
+				"<url>https://repo.spring.io/snapshot</url>");
+		assertThat(count(pom, "<id>spring-milestones</id>")).isEqualTo(2);
+		assertThat(count(pom, "<id>spring-snapshots</id>")).isEqualTo(2);
+	}
+
+	private String generate(String bootVersion) throws IOException {
+		ProjectRequest request = new ProjectRequest();
+		request.setBootVersion(bootVersion);
+		client.generate(request, outputDirectory);
+		return Files.readString(outputDirectory.resolve("pom.xml"));
+	}
+
+	/**
+	 * Gets a {@code dependency} element having a given artifact id.
+	 */
+	private static String dependency(String pom, String artifactId) {
+		int artifact = pom.indexOf("<artifactId>" + artifactId + "</artifactId>", pom.indexOf("<dependencies>"));
+		assertThat(artifact).as("dependency %s", artifactId).isGreaterThan(-1);
+		int start = pom.lastIndexOf("<dependency>", artifact);
+		int end = pom.indexOf("</dependency>", artifact);
+		return pom.substring(start, end);
+	}
+
+	private static int count(String text, String part) {
+		int count = 0;
+		for (int i = text.indexOf(part); i > -1; i = text.indexOf(part, i + part.length())) {
+			count++;
+		}
+		return count;
+	}
+}
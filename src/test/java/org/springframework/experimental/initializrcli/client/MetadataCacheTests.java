@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.client;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.experimental.initializrcli.client.MetadataCache.Entry;
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetadataCacheTests {
+
+	private final static String URL1 = "https://start1.example.com";
+	private final static String URL2 = "https://start2.example.com";
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testWriteAndReadFromDisk() {
+		new MetadataCache(tempDir).write(URL1, entry("{}", "\"1\"", "Wed, 02 Feb 2022 10:00:00 GMT"));
+
+		Optional<Entry> entry = new MetadataCache(tempDir).read(URL1);
+		assertThat(entry).isPresent();
+		assertThat(new String(entry.get().getBody(), StandardCharsets.UTF_8)).isEqualTo("{}");
+		assertThat(entry.get().getEtag()).isEqualTo("\"1\"");
+		assertThat(entry.get().getLastModified()).isEqualTo("Wed, 02 Feb 2022 10:00:00 GMT");
+		assertThat(entry.get().getMetadata()).isNull();
+		assertThat(new MetadataCache(tempDir).read(URL2)).isEmpty();
+	}
+
+	@Test
+	public void testNotWrittenWithoutValidators() {
+		MetadataCache cache = new MetadataCache(tempDir);
+		cache.write(URL1, entry("{}", null, null));
+		assertThat(cache.read(URL1)).isEmpty();
+		assertThat(new MetadataCache(tempDir).read(URL1)).isEmpty();
+	}
+
+	@Test
+	public void testEntriesKeptInMemory() {
+		MetadataCache cache = new MetadataCache(tempDir);
+		Entry written = entry("{}", "\"1\"", null);
+		Metadata metadata = new Metadata();
+		written.setMetadata(metadata);
+		cache.write(URL1, written);
+		assertThat(cache.read(URL1)).containsSame(written);
+
+		// entry read from a disk is kept too
+		MetadataCache other = new MetadataCache(tempDir);
+		Entry read = other.read(URL1).get();
+		assertThat(read).isNotSameAs(written);
+		assertThat(other.read(URL1)).containsSame(read);
+	}
+
+	@Test
+	public void testNotModifiedMetadataNotParsedAgain() {
+		try (StubInitializrServer server = StubInitializrServer.builder().build().start()) {
+			MetadataCache cache = new MetadataCache(tempDir);
+			Metadata metadata = client(server, cache).getMetadata();
+			assertThat(server.getNotModified()).isZero();
+
+			// second client sends validators and gets a same instance back
+			assertThat(client(server, cache).getMetadata()).isSameAs(metadata);
+			assertThat(server.getRequests()).isEqualTo(2);
+			assertThat(server.getNotModified()).isEqualTo(1);
+
+			// new cache only has a document on a disk which is parsed once
+			MetadataCache diskCache = new MetadataCache(tempDir);
+			Metadata parsed = client(server, diskCache).getMetadata();
+			assertThat(parsed).isNotSameAs(metadata);
+			assertThat(parsed.getBootVersion().getDefaultversion()).isEqualTo("2.6.3");
+			assertThat(server.getNotModified()).isEqualTo(2);
+			assertThat(client(server, diskCache).getMetadata()).isSameAs(parsed);
+			assertThat(server.getNotModified()).isEqualTo(3);
+		}
+	}
+
+	private static InitializrClient client(StubInitializrServer server, MetadataCache cache) {
+		return InitializrClient.builder(WebClient.builder())
+				.target(server.getBaseUrl())
+				.metadataCache(cache)
+				.build();
+	}
+
+	private static Entry entry(String body, String etag, String lastModified) {
+		return new Entry(body.getBytes(StandardCharsets.UTF_8), etag, lastModified);
+	}
+}
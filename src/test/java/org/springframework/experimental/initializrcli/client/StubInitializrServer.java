@@ -0,0 +1,288 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Embedded stand-in for an initializr server serving recorded metadata and a
+ * canned {@code starter.tgz} archive. Responses can be delayed, throttled to a
+ * bandwidth and failed periodically so that a client can be measured against
+ * a deterministic server.
+ *
+ * @author Janne Valkealahti
+ */
+public class StubInitializrServer implements AutoCloseable {
+
+	private final static MediaType METADATA_MEDIA_TYPE = new MediaType("application", "vnd.initializr.v2.2+json");
+	private final static MediaType ARCHIVE_MEDIA_TYPE = new MediaType("application", "x-compress");
+	private final static int TICKS_PER_SECOND = 100;
+	private final byte[] metadata;
+	private final String metadataEtag;
+	private final byte[] archive;
+	private final Duration latency;
+	private final long bytesPerSecond;
+	private final int failEvery;
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+	private final AtomicLong notModified = new AtomicLong();
+	private DisposableServer server;
+
+	private StubInitializrServer(Builder builder) {
+		this.metadata = builder.metadata;
+		this.metadataEtag = "\"" + DigestUtils.md5DigestAsHex(metadata) + "\"";
+		this.archive = archive(builder.archivePayloadSize);
+		this.latency = builder.latency;
+		this.bytesPerSecond = builder.bytesPerSecond;
+		this.failEvery = builder.failEvery;
+	}
+
+	/**
+	 * Gets a new builder for a stub server.
+	 *
+	 * @return the builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Starts a server on a random local port.
+	 *
+	 * @return this server
+	 */
+	public StubInitializrServer start() {
+		HttpHandler httpHandler = RouterFunctions.toHttpHandler(RouterFunctions.route()
+				.GET("/", request -> respond(request, metadata, METADATA_MEDIA_TYPE, metadataEtag))
+				.GET("/starter.tgz", request -> respond(request, archive, ARCHIVE_MEDIA_TYPE, null))
+				.build());
+		server = HttpServer.create()
+				.host("localhost")
+				.port(0)
+				.handle(new ReactorHttpHandlerAdapter(httpHandler))
+				.bindNow();
+		return this;
+	}
+
+	@Override
+	public void close() {
+		if (server != null) {
+			server.disposeNow();
+			server = null;
+		}
+	}
+
+	public String getBaseUrl() {
+		return "http://localhost:" + server.port();
+	}
+
+	public int getMetadataSize() {
+		return metadata.length;
+	}
+
+	public int getArchiveSize() {
+		return archive.length;
+	}
+
+	public long getRequests() {
+		return requests.get();
+	}
+
+	public long getFailures() {
+		return failures.get();
+	}
+
+	/**
+	 * Gets a number of conditional requests answered with {@code 304}.
+	 *
+	 * @return the number of not modified responses
+	 */
+	public long getNotModified() {
+		return notModified.get();
+	}
+
+	private Mono<ServerResponse> respond(ServerRequest request, byte[] body, MediaType mediaType, String etag) {
+		long count = requests.incrementAndGet();
+		Mono<ServerResponse> response;
+		if (failEvery > 0 && count % failEvery == 0) {
+			failures.incrementAndGet();
+			response = ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+		else if (etag != null && request.headers().header(HttpHeaders.IF_NONE_MATCH).contains(etag)) {
+			notModified.incrementAndGet();
+			response = ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		}
+		else {
+			ServerResponse.BodyBuilder builder = ServerResponse.ok()
+					.contentType(mediaType)
+					.contentLength(body.length);
+			if (etag != null) {
+				builder.eTag(etag);
+			}
+			response = builder.body(BodyInserters.fromDataBuffers(throttle(body)));
+		}
+		return latency.isZero() ? response : Mono.delay(latency).then(response);
+	}
+
+	private Flux<DataBuffer> throttle(byte[] body) {
+		DefaultDataBufferFactory factory = DefaultDataBufferFactory.sharedInstance;
+		if (bytesPerSecond <= 0) {
+			return Flux.just(factory.wrap(body));
+		}
+		// send a slice of a body on every tick to keep a given rate
+		int chunk = (int) Math.max(1, bytesPerSecond / TICKS_PER_SECOND);
+		int chunks = (body.length + chunk - 1) / chunk;
+		return Flux.interval(Duration.ZERO, Duration.ofMillis(1000 / TICKS_PER_SECOND))
+				.take(chunks)
+				.map(i -> {
+					int start = (int) (i * chunk);
+					return factory.wrap(ByteBuffer.wrap(body, start, Math.min(chunk, body.length - start)));
+				});
+	}
+
+	/**
+	 * Builds a project archive with a random payload of a given size which
+	 * doesn't compress so that archive size stays predictable.
+	 */
+	private static byte[] archive(int payloadSize) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(out))) {
+			entry(tar, "pom.xml", 0644, ("<project>\n"
+					+ "  <modelVersion>4.0.0</modelVersion>\n"
+					+ "  <groupId>com.example</groupId>\n"
+					+ "  <artifactId>demo</artifactId>\n"
+					+ "  <version>0.0.1-SNAPSHOT</version>\n"
+					+ "</project>\n").getBytes(StandardCharsets.UTF_8));
+			entry(tar, "mvnw", 0755, "#!/bin/sh\n".getBytes(StandardCharsets.UTF_8));
+			entry(tar, "src/main/java/com/example/demo/DemoApplication.java", 0644,
+					("package com.example.demo;\n\n"
+					+ "public class DemoApplication {\n"
+					+ "}\n").getBytes(StandardCharsets.UTF_8));
+			byte[] payload = new byte[payloadSize];
+			new Random(0).nextBytes(payload);
+			entry(tar, "src/main/resources/static/payload.bin", 0644, payload);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	private static void entry(TarArchiveOutputStream tar, String name, int mode, byte[] content) throws IOException {
+		TarArchiveEntry entry = new TarArchiveEntry(name);
+		entry.setMode(mode);
+		entry.setSize(content.length);
+		tar.putArchiveEntry(entry);
+		tar.write(content);
+		tar.closeArchiveEntry();
+	}
+
+	public static class Builder {
+
+		private byte[] metadata;
+		private int archivePayloadSize = 64 * 1024;
+		private Duration latency = Duration.ZERO;
+		private long bytesPerSecond;
+		private int failEvery;
+
+		Builder() {
+			try (InputStream in = new ClassPathResource("stub/metadata-v2.2.json").getInputStream()) {
+				this.metadata = in.readAllBytes();
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Sets a size of a random payload added into an archive.
+		 *
+		 * @param archivePayloadSize the payload size in bytes
+		 * @return the builder
+		 */
+		public Builder archivePayloadSize(int archivePayloadSize) {
+			this.archivePayloadSize = archivePayloadSize;
+			return this;
+		}
+
+		/**
+		 * Sets a delay before a response is sent.
+		 *
+		 * @param latency the latency
+		 * @return the builder
+		 */
+		public Builder latency(Duration latency) {
+			this.latency = latency;
+			return this;
+		}
+
+		/**
+		 * Sets a rate response bodies are sent with, zero means unlimited.
+		 *
+		 * @param bytesPerSecond the bandwidth in bytes per second
+		 * @return the builder
+		 */
+		public Builder bandwidth(long bytesPerSecond) {
+			this.bytesPerSecond = bytesPerSecond;
+			return this;
+		}
+
+		/**
+		 * Sets every n:th request to fail with {@code 503}, zero means never.
+		 *
+		 * @param failEvery the failure interval
+		 * @return the builder
+		 */
+		public Builder failEvery(int failEvery) {
+			this.failEvery = failEvery;
+			return this;
+		}
+
+		public StubInitializrServer build() {
+			return new StubInitializrServer(this);
+		}
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.command;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jline.terminal.Terminal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.experimental.initializrcli.client.StubInitializrServer;
+import org.springframework.experimental.initializrcli.config.InitializrCliProperties;
+import org.springframework.experimental.initializrcli.support.Target;
+import org.springframework.experimental.initializrcli.support.TargetHolder;
+import org.springframework.shell.style.TemplateExecutor;
+import org.springframework.shell.table.Table;
+import org.springframework.shell.table.TableModel;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+public class BatchCommandsTests {
+
+	private StubInitializrServer server;
+	private AnnotationConfigApplicationContext context;
+
+	@TempDir
+	Path tempDir;
+
+	@AfterEach
+	public void cleanup() {
+		if (context != null) {
+			context.close();
+		}
+		context = null;
+		if (server != null) {
+			server.close();
+		}
+		server = null;
+	}
+
+	@Test
+	public void testYamlManifest() throws IOException {
+		BatchCommands commands = commands(StubInitializrServer.builder().build());
+		Path manifest = manifest("manifest.yaml",
+				"- path: app1\n"
+				+ "  project: maven-project\n"
+				+ "  dependencies: [web]\n"
+				+ "- path: app2\n"
+				+ "  project: gradle-project\n"
+				+ "  bootVersion: 2.7.0-M1\n"
+				+ "  dependencies:\n"
+				+ "    - webflux\n"
+				+ "    - graphql\n");
+
+		List<List<String>> rows = rows(commands.initBatch(manifest.toString(), 2, 60));
+
+		assertThat(rows).extracting(row -> row.get(0)).containsExactly("app1", "app2");
+		assertThat(rows).allSatisfy(row -> assertThat(row.get(1)).as(row.get(3)).isEqualTo("OK"));
+		assertThat(tempDir.resolve("app1/pom.xml")).isRegularFile();
+		assertThat(tempDir.resolve("app2/pom.xml")).isRegularFile();
+	}
+
+	@Test
+	public void testJsonManifestWithProjectsList() throws IOException {
+		BatchCommands commands = commands(StubInitializrServer.builder().build());
+		Path manifest = manifest("manifest.json",
+				"{ \"projects\": [\n"
+				+ "  { \"path\": \"service/app1\", \"javaVersion\": \"17\" },\n"
+				+ "  { \"path\": \"service/app2\", \"dependencies\": [\"data-jpa\", \"h2\"] }\n"
+				+ "] }\n");
+
+		List<List<String>> rows = rows(commands.initBatch(manifest.toString(), 4, 60));
+
+		assertThat(rows).extracting(row -> row.get(0)).containsExactly("service/app1", "service/app2");
+		assertThat(rows).allSatisfy(row -> assertThat(row.get(1)).as(row.get(3)).isEqualTo("OK"));
+		assertThat(tempDir.resolve("service/app1/mvnw")).isRegularFile();
+		assertThat(tempDir.resolve("service/app2/mvnw")).isRegularFile();
+	}
+
+	@Test
+	public void testInvalidSpecsFailOthersSucceed() throws IOException {
+		BatchCommands commands = commands(StubInitializrServer.builder().build());
+		Path manifest = manifest("manifest.yaml",
+				"projects:\n"
+				+ "  - path: app1\n"
+				+ "  - path: app2\n"
+				+ "    bootVersion: foo\n"
+				+ "  - path: app3\n"
+				+ "    dependencies: [bar]\n"
+				+ "  - project: maven-project\n");
+
+		List<List<String>> rows = rows(commands.initBatch(manifest.toString(), 4, 60));
+
+		assertThat(rows).extracting(row -> row.get(0)).containsExactly("", "app1", "app2", "app3");
+		assertThat(rows).extracting(row -> row.get(1)).containsExactly("FAILED", "OK", "FAILED", "FAILED");
+		assertThat(rows.get(0).get(3)).isEqualTo("Path is not set");
+		assertThat(rows.get(2).get(3)).startsWith("Unknown bootVersion 'foo'");
+		assertThat(rows.get(3).get(3)).isEqualTo("Unknown dependency 'bar'");
+		assertThat(tempDir.resolve("app1/pom.xml")).isRegularFile();
+		assertThat(tempDir.resolve("app2")).doesNotExist();
+		assertThat(tempDir.resolve("app3")).doesNotExist();
+	}
+
+	@Test
+	public void testPathOutsideOfManifestDirectory() throws IOException {
+		BatchCommands commands = commands(StubInitializrServer.builder().build());
+		Path manifestDirectory = Files.createDirectory(tempDir.resolve("manifests"));
+		Path manifest = manifestDirectory.resolve("manifest.yaml");
+		Files.writeString(manifest,
+				"- path: ../x\n"
+				+ "- path: app/../../y\n"
+				+ "- path: app/../z\n");
+
+		List<List<String>> rows = rows(commands.initBatch(manifest.toString(), 4, 60));
+
+		assertThat(rows).extracting(row -> row.get(0)).containsExactly("../x", "app/../../y", "app/../z");
+		assertThat(rows).extracting(row -> row.get(1)).containsExactly("FAILED", "FAILED", "OK");
+		assertThat(rows.get(0).get(3)).startsWith("Path ../x is outside of");
+		assertThat(tempDir.resolve("x")).doesNotExist();
+		assertThat(tempDir.resolve("y")).doesNotExist();
+		assertThat(manifestDirectory.resolve("z/pom.xml")).isRegularFile();
+	}
+
+	@Test
+	public void testDuplicatePaths() throws IOException {
+		BatchCommands commands = commands(StubInitializrServer.builder().build());
+		Path manifest = manifest("manifest.yaml",
+				"- path: app1\n"
+				+ "- path: ./app1\n"
+				+ "- path: app2\n");
+
+		List<List<String>> rows = rows(commands.initBatch(manifest.toString(), 4, 60));
+
+		assertThat(rows).extracting(row -> row.get(0)).containsExactly("./app1", "app1", "app2");
+		assertThat(rows).extracting(row -> row.get(1)).containsExactly("FAILED", "FAILED", "OK");
+		assertThat(rows.get(1).get(3)).isEqualTo("Path app1 is used by more than one project");
+		assertThat(tempDir.resolve("app1")).doesNotExist();
+		assertThat(tempDir.resolve("app2/pom.xml")).isRegularFile();
+	}
+
+	@Test
+	public void testTimeoutRemovesPartialProject() throws IOException {
+		// archive takes about 16 seconds to download
+		BatchCommands commands = commands(StubInitializrServer.builder()
+				.archivePayloadSize(64 * 1024)
+				.bandwidth(4 * 1024)
+				.build());
+		Path manifest = manifest("manifest.yaml", "- path: slow\n");
+
+		List<List<String>> rows = rows(commands.initBatch(manifest.toString(), 1, 1));
+
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0).get(1)).isEqualTo("FAILED");
+		assertThat(rows.get(0).get(3)).isEqualTo("Timed out after 1s");
+		// cancelled generation removes its directory on its own thread
+		await().atMost(Duration.ofSeconds(4)).untilAsserted(() -> assertThat(tempDir.resolve("slow")).doesNotExist());
+	}
+
+	private BatchCommands commands(StubInitializrServer server) {
+		this.server = server.start();
+		InitializrCliProperties properties = new InitializrCliProperties();
+		properties.getCache().setEnabled(false);
+		context = new AnnotationConfigApplicationContext();
+		context.registerBean(Terminal.class, () -> mock(Terminal.class));
+		context.registerBean(TemplateExecutor.class, () -> mock(TemplateExecutor.class));
+		context.registerBean(WebClient.Builder.class, WebClient::builder);
+		context.registerBean(InitializrCliProperties.class, () -> properties);
+		context.registerBean(TargetHolder.class);
+		context.registerBean(BatchCommands.class);
+		context.refresh();
+		context.getBean(TargetHolder.class).changeTarget(new Target(server.getBaseUrl()));
+		return context.getBean(BatchCommands.class);
+	}
+
+	private Path manifest(String name, String content) throws IOException {
+		return Files.writeString(tempDir.resolve(name), content);
+	}
+
+	/**
+	 * Gets table rows without a header.
+	 */
+	private static List<List<String>> rows(Table table) {
+		TableModel model = table.getModel();
+		List<List<String>> rows = new ArrayList<>();
+		for (int row = 1; row < model.getRowCount(); row++) {
+			String[] values = new String[model.getColumnCount()];
+			for (int column = 0; column < values.length; column++) {
+				values[column] = String.valueOf(model.getValue(row, column));
+			}
+			rows.add(Arrays.asList(values));
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.command;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jline.terminal.Terminal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.experimental.initializrcli.client.InitializrClient;
+import org.springframework.experimental.initializrcli.client.ProjectRequest;
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.experimental.initializrcli.support.InitializrClientUpdatedEvent;
+import org.springframework.experimental.initializrcli.support.MetadataIndex;
+import org.springframework.experimental.initializrcli.support.TargetHolder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.shell.style.TemplateExecutor;
+import org.springframework.shell.style.ThemeResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class GenerateCommandsTests {
+
+	private static Metadata metadata;
+	private AnnotationConfigApplicationContext context;
+	private Terminal terminal;
+	private TemplateExecutor templateExecutor;
+	private ThemeResolver themeResolver;
+	private InitializrClient client;
+	private TargetHolder targetHolder;
+	private GenerateCommands commands;
+
+	@TempDir
+	Path tempDir;
+
+	@BeforeAll
+	static void setupMetadata() throws IOException {
+		try (InputStream in = new ClassPathResource("stub/metadata-v2.2.json").getInputStream()) {
+			metadata = Jackson2ObjectMapperBuilder.json().build().readValue(in, Metadata.class);
+		}
+	}
+
+	@BeforeEach
+	public void setup() {
+		terminal = mock(Terminal.class);
+		templateExecutor = mock(TemplateExecutor.class);
+		themeResolver = mock(ThemeResolver.class);
+		client = mock(InitializrClient.class);
+		when(client.getMetadata()).thenReturn(metadata);
+		targetHolder = mock(TargetHolder.class);
+		when(targetHolder.getClient()).thenReturn(client);
+		MetadataIndex index = MetadataIndex.of(metadata);
+		when(targetHolder.getMetadataIndex(client)).thenReturn(index);
+
+		context = new AnnotationConfigApplicationContext();
+		context.registerBean(Terminal.class, () -> terminal);
+		context.registerBean(TemplateExecutor.class, () -> templateExecutor);
+		context.registerBean(ThemeResolver.class, () -> themeResolver);
+		context.registerBean(TargetHolder.class, () -> targetHolder);
+		context.registerBean(GenerateCommands.class);
+		context.refresh();
+		commands = context.getBean(GenerateCommands.class);
+	}
+
+	@AfterEach
+	public void cleanup() {
+		if (context != null) {
+			context.close();
+		}
+		context = null;
+	}
+
+	@Test
+	public void testNonInteractiveFillsDefaults() {
+		Path path = tempDir.resolve("demo");
+		String result = commands.init(path.toString(), null, null, null, null, null, null, null, null, null, null,
+				null, null, true);
+		assertThat(result).isEqualTo(String.format("Extracted to %s", path.toAbsolutePath()));
+		assertThat(path).isDirectory();
+
+		ProjectRequest request = generatedRequest(path);
+		assertThat(request.getType()).isEqualTo("maven-project");
+		assertThat(request.getLanguage()).isEqualTo("java");
+		assertThat(request.getBootVersion()).isEqualTo("2.6.3");
+		assertThat(request.getVersion()).isEqualTo("0.0.1-SNAPSHOT");
+		assertThat(request.getGroupId()).isEqualTo("com.example");
+		assertThat(request.getArtifactId()).isEqualTo("demo");
+		assertThat(request.getName()).isEqualTo("demo");
+		assertThat(request.getDescription()).isEqualTo("Demo project for Spring Boot");
+		assertThat(request.getPackageName()).isEqualTo("com.example.demo");
+		assertThat(request.getPackaging()).isEqualTo("jar");
+		assertThat(request.getJavaVersion()).isEqualTo("11");
+		assertThat(request.getDependencies()).isEmpty();
+		assertNoComponents();
+	}
+
+	@Test
+	public void testNonInteractiveKeepsGivenOptions() {
+		Path path = tempDir.resolve("demo");
+		commands.init(path.toString(), "gradle-project", "kotlin", "2.7.0-M1", null, "org.example", null, null, null,
+				null, Arrays.asList("web", "graphql"), null, "17", true);
+
+		ProjectRequest request = generatedRequest(path);
+		assertThat(request.getType()).isEqualTo("gradle-project");
+		assertThat(request.getLanguage()).isEqualTo("kotlin");
+		assertThat(request.getBootVersion()).isEqualTo("2.7.0-M1");
+		assertThat(request.getGroupId()).isEqualTo("org.example");
+		assertThat(request.getArtifactId()).isEqualTo("demo");
+		assertThat(request.getJavaVersion()).isEqualTo("17");
+		assertThat(request.getDependencies()).containsExactly("web", "graphql");
+		assertNoComponents();
+	}
+
+	@Test
+	public void testAllOptionsGivenSkipsComponents() {
+		Path path = tempDir.resolve("demo");
+		String result = commands.init(path.toString(), "maven-project", "java", "2.6.3", "0.0.1-SNAPSHOT",
+				"com.example", "demo", "demo", "Demo project", "com.example.demo", Arrays.asList("web"), "jar", "11",
+				false);
+		assertThat(result).startsWith("Extracted to");
+		assertThat(generatedRequest(path).getDependencies()).containsExactly("web");
+		assertNoComponents();
+	}
+
+	@Test
+	public void testValidationErrors() {
+		Path path = tempDir.resolve("demo");
+		assertThatThrownBy(() -> commands.init(path.toString(), "foo", null, "2.6.3", null, null, null, null, null,
+				null, Arrays.asList("graphql", "bar"), null, null, true))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Unknown project 'foo', expected one of [maven-project, maven-build, gradle-project], "
+						+ "Dependency 'graphql' requires Spring Boot 2.7.0-M1, "
+						+ "Unknown dependency 'bar'");
+		assertThat(path).doesNotExist();
+		verify(client, never()).generate(any(), any());
+		assertNoComponents();
+	}
+
+	@Test
+	public void testMissingPath() {
+		assertThatThrownBy(() -> commands.init(null, null, null, null, null, null, null, null, null, null, null,
+				null, null, true))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Path must be set in non-interactive mode");
+		verify(client, never()).generate(any(), any());
+		assertNoComponents();
+	}
+
+	@Test
+	public void testViewBuiltOffEventThread() {
+		AtomicReference<Thread> metadataThread = new AtomicReference<>();
+		MetadataIndex index = MetadataIndex.of(metadata);
+		when(targetHolder.getMetadataIndex(client)).thenAnswer(invocation -> {
+			metadataThread.compareAndSet(null, Thread.currentThread());
+			return index;
+		});
+		context.publishEvent(new InitializrClientUpdatedEvent(client));
+		await().atMost(Duration.ofSeconds(4)).untilAsserted(() -> assertThat(metadataThread.get()).isNotNull());
+		assertThat(metadataThread.get()).isNotSameAs(Thread.currentThread());
+		assertThat(metadataThread.get().getName()).isEqualTo("init-wizard-view");
+		Object view = ReflectionTestUtils.getField(commands, "view");
+		assertThat(view).isNotNull();
+
+		Path path = tempDir.resolve("demo");
+		commands.init(path.toString(), null, null, null, null, null, null, null, null, null, null, null, null, true);
+		assertThat(generatedRequest(path).getBootVersion()).isEqualTo("2.6.3");
+		assertNoComponents(view);
+	}
+
+	private ProjectRequest generatedRequest(Path path) {
+		ArgumentCaptor<ProjectRequest> captor = ArgumentCaptor.forClass(ProjectRequest.class);
+		verify(client).generate(captor.capture(), eq(path.toAbsolutePath()));
+		return captor.getValue();
+	}
+
+	private void assertNoComponents() {
+		assertNoComponents(null);
+	}
+
+	private void assertNoComponents(Object view) {
+		// every component reads and writes through a terminal and renders with
+		// a template executor or theme resolver so nothing was shown if none
+		// was touched
+		verifyNoInteractions(terminal, templateExecutor, themeResolver);
+		// and a wizard view is only built for components
+		assertThat(ReflectionTestUtils.getField(commands, "view")).isSameAs(view);
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.command;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.experimental.initializrcli.client.model.IdName;
+import org.springframework.experimental.initializrcli.client.model.JavaVersion.JavaVersionValues;
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.experimental.initializrcli.component.support.SelectorItem;
+import org.springframework.experimental.initializrcli.support.MetadataIndex;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InitWizardViewTests {
+
+	private static InitWizardView view;
+
+	@BeforeAll
+	static void setup() throws IOException {
+		view = InitWizardView.of(MetadataIndex.of(metadata()));
+	}
+
+	@Test
+	public void testItemsSortedByName() {
+		// only project formats are offered, not plain builds
+		assertThat(names(view.getProjects())).containsExactly("Gradle Project", "Maven Project");
+		assertThat(ids(view.getProjects())).containsExactly("gradle-project", "maven-project");
+		assertThat(names(view.getLanguages())).containsExactly("Groovy", "Java", "Kotlin");
+		assertThat(names(view.getPackagings())).containsExactly("Jar", "War");
+	}
+
+	@Test
+	public void testVersionsOrder() {
+		assertThat(ids(view.getBootVersions())).containsExactly("2.7.0-SNAPSHOT", "2.7.0-M1", "2.6.4-SNAPSHOT",
+				"2.6.3", "2.5.10-SNAPSHOT", "2.5.9");
+		assertThat(ids(view.getJavaVersions())).containsExactly("1.8", "11", "17");
+	}
+
+	@Test
+	public void testBootVersionsOrderedAsVersions() throws IOException {
+		Metadata metadata = metadata();
+		metadata.getBootVersion().setValues(Arrays.asList(idName("2.9.1"), idName("latest"),
+				idName("2.10.0-SNAPSHOT"), idName("2.9.0-RC1"), idName("2.10.0"), idName("3.0.0-M1"),
+				idName("2.10.0-M2"), idName("next")));
+		InitWizardView view = InitWizardView.of(MetadataIndex.of(metadata));
+		// newest first where 2.10 is newer than 2.9, versions which don't parse
+		// go last in their metadata order
+		assertThat(ids(view.getBootVersions())).containsExactly("3.0.0-M1", "2.10.0", "2.10.0-SNAPSHOT",
+				"2.10.0-M2", "2.9.1", "2.9.0-RC1", "latest", "next");
+	}
+
+	@Test
+	public void testJavaVersionsOrderedAsNumbers() throws IOException {
+		Metadata metadata = metadata();
+		metadata.getJavaVersion().setValues(Arrays.asList(javaVersion("17", "17"), javaVersion("ea", "Early Access"),
+				javaVersion("1.8", "8"), javaVersion("11", "11"), javaVersion("1.7", "1.7"), javaVersion("9", "9"),
+				javaVersion("1.", "1.")));
+		InitWizardView view = InitWizardView.of(MetadataIndex.of(metadata));
+		// legacy 1.x names sort as x, names which are not numbers go last
+		assertThat(ids(view.getJavaVersions())).containsExactly("1.7", "1.8", "9", "11", "17", "ea", "1.");
+	}
+
+	@Test
+	public void testDependenciesSortedByName() {
+		assertThat(ids(view.getDependencies("2.6.3"))).containsExactly("h2", "lombok", "postgresql", "actuator",
+				"devtools", "data-jpa", "native", "webflux", "web", "graphql");
+	}
+
+	@Test
+	public void testDependenciesEnabledPerBootVersion() {
+		assertThat(enabled(view.getDependencies("2.6.3"))).contains("native").doesNotContain("graphql");
+		assertThat(enabled(view.getDependencies("2.6.4-SNAPSHOT"))).doesNotContain("native", "graphql");
+		assertThat(enabled(view.getDependencies("2.5.9"))).doesNotContain("native", "graphql");
+		assertThat(enabled(view.getDependencies("2.7.0-M1"))).contains("graphql").doesNotContain("native");
+		// dependencies without a range are always enabled
+		assertThat(enabled(view.getDependencies("2.5.9"))).containsExactly("h2", "lombok", "postgresql",
+				"actuator", "devtools", "data-jpa", "webflux", "web");
+	}
+
+	@Test
+	public void testDependenciesWithoutBootVersionAllEnabled() {
+		assertThat(enabled(view.getDependencies(null))).hasSize(10);
+		assertThat(enabled(view.getDependencies(""))).hasSize(10);
+	}
+
+	@Test
+	public void testDependenciesBuiltOncePerBootVersion() {
+		assertThat(view.getDependencies("2.6.3")).isSameAs(view.getDependencies("2.6.3"));
+		assertThat(view.getDependencies("2.6.3")).isNotSameAs(view.getDependencies("2.7.0-M1"));
+	}
+
+	@Test
+	public void testItemsAreImmutable() {
+		List<SelectorItem<String>> items = view.getDependencies("2.6.3");
+		assertThatThrownBy(() -> items.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> view.getBootVersions().clear()).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	private static Metadata metadata() throws IOException {
+		try (InputStream in = new ClassPathResource("stub/metadata-v2.2.json").getInputStream()) {
+			return Jackson2ObjectMapperBuilder.json().build().readValue(in, Metadata.class);
+		}
+	}
+
+	private static IdName idName(String id) {
+		IdName idName = new IdName();
+		idName.setId(id);
+		idName.setName(id);
+		return idName;
+	}
+
+	private static JavaVersionValues javaVersion(String id, String name) {
+		JavaVersionValues value = new JavaVersionValues();
+		value.setId(id);
+		value.setName(name);
+		return value;
+	}
+
+	private static List<String> names(List<SelectorItem<String>> items) {
+		return items.stream().map(SelectorItem::getName).collect(Collectors.toList());
+	}
+
+	private static List<String> ids(List<SelectorItem<String>> items) {
+		return items.stream().map(SelectorItem::getItem).collect(Collectors.toList());
+	}
+
+	private static List<String> enabled(List<SelectorItem<String>> items) {
+		return items.stream().filter(SelectorItem::isEnabled).map(SelectorItem::getItem).collect(Collectors.toList());
+	}
+}
@@ -23,14 +23,17 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
+import org.jline.utils.AttributedString;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.experimental.initializrcli.AbstractShellTests;
+import org.springframework.experimental.initializrcli.component.MultiItemSelector.MultiItemSelectorContext;
 import org.springframework.experimental.initializrcli.component.context.ComponentContext;
 import org.springframework.experimental.initializrcli.component.support.SelectorItem;
 import org.springframework.shell.style.TemplateExecutor;
@@ -45,6 +48,8 @@ import static org.springframework.experimental.initializrcli.ShellAssertions.ass
 
 public class MultiItemSelectorTests extends AbstractShellTests {
 
+	private final static String TEMPLATE_LOCATION = "classpath:/org/springframework/shell/component/multi-item-selector-default.stg";
+
 	private static SimplePojo SIMPLE_POJO_1 = SimplePojo.of("data1");
 	private static SimplePojo SIMPLE_POJO_2 = SimplePojo.of("data2");
 	private static SimplePojo SIMPLE_POJO_3 = SimplePojo.of("data3");
@@ -64,6 +69,7 @@ public class MultiItemSelectorTests extends AbstractShellTests {
 	private CountDownLatch latch;
 	private AtomicReference<List<SelectorItem<SimplePojo>>> result;
 	private TemplateExecutor templateExecutor;
+	private ThemeResolver themeResolver;
 
 	@BeforeEach
 	public void setupMulti() {
@@ -83,7 +89,7 @@ public class MultiItemSelectorTests extends AbstractShellTests {
 				return ThemeSettings.themeSettings();
 			}
 		});
-		ThemeResolver themeResolver = new ThemeResolver(themeRegistry, "default");
+		themeResolver = new ThemeResolver(themeRegistry, "default");
 		templateExecutor = new TemplateExecutor(themeResolver);
 	}
 
@@ -209,6 +215,70 @@ public class MultiItemSelectorTests extends AbstractShellTests {
 		assertThat(datas).containsExactlyInAnyOrder("data4");
 	}
 
+	@Test
+	public void testSelectionsKeptAcrossFilterChanges() throws InterruptedException {
+		scheduleSelect();
+
+		// select first, filter to third and select it, then clear a filter
+		TestBuffer testBuffer = new TestBuffer().space().append("3").space().backspace().cr();
+		write(testBuffer.getBytes());
+
+		awaitLatch();
+
+		List<SelectorItem<SimplePojo>> selected = result.get();
+		assertThat(selected).hasSize(2);
+		Stream<String> datas = selected.stream().map(SelectorItem::getItem).map(SimplePojo::getData);
+		assertThat(datas).containsExactly("data1", "data3");
+	}
+
+	@Test
+	public void testDeselectInFilteredView() throws InterruptedException {
+		scheduleSelect();
+
+		TestBuffer testBuffer = new TestBuffer().space().ctrlE().space().append("2").space().backspace().cr();
+		write(testBuffer.getBytes());
+
+		awaitLatch();
+
+		List<SelectorItem<SimplePojo>> selected = result.get();
+		assertThat(selected).hasSize(1);
+		Stream<String> datas = selected.stream().map(SelectorItem::getItem).map(SimplePojo::getData);
+		assertThat(datas).containsExactly("data1");
+	}
+
+	@Test
+	public void testDisabledIsNotSelectableInFilteredView() throws InterruptedException {
+		scheduleSelect(Arrays.asList(SELECTOR_ITEM_1, SELECTOR_ITEM_7));
+
+		TestBuffer testBuffer = new TestBuffer().append("7").space().backspace().space().cr();
+		write(testBuffer.getBytes());
+
+		awaitLatch();
+
+		List<SelectorItem<SimplePojo>> selected = result.get();
+		assertThat(selected).hasSize(1);
+		Stream<String> datas = selected.stream().map(SelectorItem::getItem).map(SimplePojo::getData);
+		assertThat(datas).containsExactly("data1");
+	}
+
+	@Test
+	public void testRendererMatchesTemplate() throws InterruptedException {
+		List<SelectorItem<SimplePojo>> items = Arrays.asList(SELECTOR_ITEM_1, SELECTOR_ITEM_2,
+				SelectorItem.of("simplePojo3", SIMPLE_POJO_3, false), SELECTOR_ITEM_4);
+		MultiItemSelector<SimplePojo, SelectorItem<SimplePojo>> template = selector(items);
+		template.setTemplateLocation(TEMPLATE_LOCATION);
+		RendererComparison<MultiItemSelectorContext<SimplePojo, SelectorItem<SimplePojo>>> comparison = new RendererComparison<>(
+				selector(items), template);
+		scheduleSelect(items, null, comparison);
+
+		TestBuffer testBuffer = new TestBuffer().space().down().space().down().cr();
+		write(testBuffer.getBytes());
+		awaitLatch();
+
+		assertThat(result.get()).hasSize(2);
+		comparison.assertSameOutput();
+	}
+
 	private void scheduleSelect() {
 		scheduleSelect(Arrays.asList(SELECTOR_ITEM_1, SELECTOR_ITEM_2, SELECTOR_ITEM_3,
 				SELECTOR_ITEM_4));
@@ -219,10 +289,15 @@ public class MultiItemSelectorTests extends AbstractShellTests {
 	}
 
 	private void scheduleSelect(List<SelectorItem<SimplePojo>> items, Integer maxItems) {
-		MultiItemSelector<SimplePojo, SelectorItem<SimplePojo>> selector = new MultiItemSelector<>(getTerminal(),
-				items, "testSimple", null);
-		selector.setResourceLoader(new DefaultResourceLoader());
-		selector.setTemplateExecutor(templateExecutor);
+		scheduleSelect(items, maxItems, null);
+	}
+
+	private void scheduleSelect(List<SelectorItem<SimplePojo>> items, Integer maxItems,
+			Function<MultiItemSelectorContext<SimplePojo, SelectorItem<SimplePojo>>, List<AttributedString>> renderer) {
+		MultiItemSelector<SimplePojo, SelectorItem<SimplePojo>> selector = selector(items);
+		if (renderer != null) {
+			selector.setRenderer(renderer);
+		}
 
 		selector.setPrintResults(true);
 		if (maxItems != null) {
@@ -235,6 +310,15 @@ public class MultiItemSelectorTests extends AbstractShellTests {
 		});
 	}
 
+	private MultiItemSelector<SimplePojo, SelectorItem<SimplePojo>> selector(List<SelectorItem<SimplePojo>> items) {
+		MultiItemSelector<SimplePojo, SelectorItem<SimplePojo>> selector = new MultiItemSelector<>(getTerminal(),
+				items, "testSimple", null);
+		selector.setResourceLoader(new DefaultResourceLoader());
+		selector.setTemplateExecutor(templateExecutor);
+		selector.setThemeResolver(themeResolver);
+		return selector;
+	}
+
 	private void awaitLatch() throws InterruptedException {
 		latch.await(4, TimeUnit.SECONDS);
 	}
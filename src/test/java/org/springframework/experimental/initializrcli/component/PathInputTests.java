@@ -18,7 +18,11 @@ package org.springframework.experimental.initializrcli.component;
 import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -35,6 +39,7 @@ import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.experimental.initializrcli.AbstractShellTests;
 import org.springframework.experimental.initializrcli.component.PathInput.PathInputContext;
 import org.springframework.experimental.initializrcli.component.context.ComponentContext;
+import org.springframework.experimental.initializrcli.component.support.AbstractTextComponent.TextComponentContext.MessageLevel;
 import org.springframework.shell.style.TemplateExecutor;
 import org.springframework.shell.style.Theme;
 import org.springframework.shell.style.ThemeRegistry;
@@ -42,15 +47,19 @@ import org.springframework.shell.style.ThemeResolver;
 import org.springframework.shell.style.ThemeSettings;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 public class PathInputTests extends AbstractShellTests {
 
+	private final static String TEMPLATE_LOCATION = "classpath:/org/springframework/shell/component/path-input-default.stg";
+
 	private ExecutorService service;
 	private CountDownLatch latch1;
 	private AtomicReference<PathInputContext> result1;
 	private FileSystem fileSystem;
 	private Function<String, Path> pathProvider;
 	private TemplateExecutor templateExecutor;
+	private ThemeResolver themeResolver;
 
 	@BeforeEach
 	public void setupTests() {
@@ -72,7 +81,7 @@ public class PathInputTests extends AbstractShellTests {
 				return ThemeSettings.themeSettings();
 			}
 		});
-		ThemeResolver themeResolver = new ThemeResolver(themeRegistry, "default");
+		themeResolver = new ThemeResolver(themeRegistry, "default");
 		templateExecutor = new TemplateExecutor(themeResolver);
 	}
 
@@ -119,4 +128,212 @@ public class PathInputTests extends AbstractShellTests {
 		assertThat(run1Context.getResultValue()).isNotNull();
 		assertThat(run1Context.getResultValue().toString()).contains("tmp");
 	}
+
+	@Test
+	public void testCompletesDirectory() throws InterruptedException, IOException {
+		Files.createDirectories(fileSystem.getPath("tmp", "sub"));
+		Files.createDirectories(fileSystem.getPath("other"));
+		ComponentContext<?> empty = ComponentContext.empty();
+		PathInput component1 = new PathInput(getTerminal(), "component1");
+		component1.setPathProvider(pathProvider);
+		component1.setResourceLoader(new DefaultResourceLoader());
+		component1.setTemplateExecutor(templateExecutor);
+		AtomicReference<PathInputContext> running = new AtomicReference<>();
+		component1.addPreRunHandler(running::set);
+
+		service.execute(() -> {
+			PathInputContext run1Context = component1.run(empty);
+			result1.set(run1Context);
+			latch1.countDown();
+		});
+
+		// listing is loaded in a background so wait for a completion to be
+		// applied before a next key
+		write(new TestBuffer().append("tm\t").getBytes());
+		await().atMost(Duration.ofSeconds(4))
+				.untilAsserted(() -> assertThat(running.get()).extracting(PathInputContext::getInput)
+						.isEqualTo("tmp/"));
+		write(new TestBuffer().append("s\t").getBytes());
+		await().atMost(Duration.ofSeconds(4))
+				.untilAsserted(() -> assertThat(running.get()).extracting(PathInputContext::getInput)
+						.isEqualTo("tmp/sub/"));
+		write(new TestBuffer().cr().getBytes());
+
+		latch1.await(2, TimeUnit.SECONDS);
+		PathInputContext run1Context = result1.get();
+
+		assertThat(run1Context).isNotNull();
+		assertThat(run1Context.getResultValue()).isNotNull();
+		assertThat(run1Context.getResultValue().toString()).isEqualTo("tmp/sub");
+	}
+
+	@Test
+	public void testRendererMatchesTemplate() throws InterruptedException, IOException {
+		Files.createDirectories(fileSystem.getPath("tmp"));
+		ComponentContext<?> empty = ComponentContext.empty();
+		PathInput component1 = configure(new PathInput(getTerminal(), "component1"));
+		PathInput template = configure(new PathInput(getTerminal(), "component1"));
+		template.setTemplateLocation(TEMPLATE_LOCATION);
+		RendererComparison<PathInputContext> comparison = new RendererComparison<>(
+				configure(new PathInput(getTerminal(), "component1")), template);
+		component1.setRenderer(comparison);
+		AtomicReference<PathInputContext> running = new AtomicReference<>();
+		component1.addPreRunHandler(running::set);
+
+		service.execute(() -> {
+			PathInputContext run1Context = component1.run(empty);
+			result1.set(run1Context);
+			latch1.countDown();
+		});
+
+		// error and info messages are both rendered before a result
+		write(new TestBuffer().append("tmp").getBytes());
+		await().atMost(Duration.ofSeconds(4)).untilAsserted(
+				() -> assertThat(running.get()).extracting(PathInputContext::getMessage).isEqualTo("Directory exists"));
+		write(new TestBuffer().append("x").getBytes());
+		await().atMost(Duration.ofSeconds(4)).untilAsserted(
+				() -> assertThat(running.get()).extracting(PathInputContext::getMessage).isEqualTo("Path ok"));
+		write(new TestBuffer().cr().getBytes());
+
+		latch1.await(2, TimeUnit.SECONDS);
+		PathInputContext run1Context = result1.get();
+
+		assertThat(run1Context).isNotNull();
+		assertThat(run1Context.getResultValue().toString()).isEqualTo("tmpx");
+		comparison.assertSameOutput();
+	}
+
+	@Test
+	public void testDirectoryExistsShownAfterDelay() throws InterruptedException, IOException {
+		Files.createDirectories(fileSystem.getPath("dir1"));
+		PathInput component1 = configure(new PathInput(getTerminal(), "component1"));
+		List<String> messages = recordMessages(component1);
+		AtomicReference<PathInputContext> running = runComponent(component1);
+
+		long start = System.nanoTime();
+		write(new TestBuffer().append("dir1").getBytes());
+		await().atMost(Duration.ofSeconds(4)).untilAsserted(
+				() -> assertThat(running.get()).extracting(PathInputContext::getMessage).isEqualTo("Directory exists"));
+		// checked only when typing pauses
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+		assertThat(running.get().getMessageLevel()).isEqualTo(MessageLevel.ERROR);
+		await().atMost(Duration.ofSeconds(4))
+				.untilAsserted(() -> assertThat(messages).containsSubsequence("dir1:null", "dir1:Directory exists"));
+		write(new TestBuffer().cr().getBytes());
+
+		latch1.await(2, TimeUnit.SECONDS);
+		assertThat(result1.get().getResultValue().toString()).isEqualTo("dir1");
+	}
+
+	@Test
+	public void testInvalidPathShownAfterDelay() throws InterruptedException {
+		pathProvider = path -> {
+			if (path.contains("*")) {
+				throw new InvalidPathException(path, "Illegal char <*>");
+			}
+			return fileSystem.getPath(path);
+		};
+		PathInput component1 = configure(new PathInput(getTerminal(), "component1"));
+		List<String> messages = recordMessages(component1);
+		AtomicReference<PathInputContext> running = runComponent(component1);
+
+		long start = System.nanoTime();
+		write(new TestBuffer().append("file*").getBytes());
+		await().atMost(Duration.ofSeconds(4)).untilAsserted(
+				() -> assertThat(running.get()).extracting(PathInputContext::getMessage).isEqualTo("Invalid path"));
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+		assertThat(running.get().getMessageLevel()).isEqualTo(MessageLevel.ERROR);
+		await().atMost(Duration.ofSeconds(4))
+				.untilAsserted(() -> assertThat(messages).containsSubsequence("file*:null", "file*:Invalid path"));
+
+		// invalid path is not accepted
+		write(new TestBuffer().cr().getBytes());
+		assertThat(latch1.await(500, TimeUnit.MILLISECONDS)).isFalse();
+		write(new TestBuffer().backspace().getBytes());
+		await().atMost(Duration.ofSeconds(4)).untilAsserted(
+				() -> assertThat(running.get()).extracting(PathInputContext::getMessage).isEqualTo("Path ok"));
+		write(new TestBuffer().cr().getBytes());
+
+		latch1.await(2, TimeUnit.SECONDS);
+		assertThat(result1.get().getResultValue().toString()).isEqualTo("file");
+	}
+
+	@Test
+	public void testStaleCheckDropped() throws InterruptedException, IOException {
+		Files.createDirectories(fileSystem.getPath("dir2"));
+		CountDownLatch checking = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PathInput component1 = configure(new PathInput(getTerminal(), "component1") {
+			@Override
+			protected boolean isDirectory(Path path) {
+				if (path.toString().equals("dir2")) {
+					// holds a check until input has changed
+					checking.countDown();
+					try {
+						release.await(4, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return super.isDirectory(path);
+			}
+		});
+		List<String> messages = recordMessages(component1);
+		AtomicReference<PathInputContext> running = runComponent(component1);
+
+		write(new TestBuffer().append("dir2").getBytes());
+		assertThat(checking.await(4, TimeUnit.SECONDS)).isTrue();
+		write(new TestBuffer().append("x").getBytes());
+		await().atMost(Duration.ofSeconds(4)).untilAsserted(
+				() -> assertThat(running.get()).extracting(PathInputContext::getInput).isEqualTo("dir2x"));
+		release.countDown();
+		await().atMost(Duration.ofSeconds(4)).untilAsserted(
+				() -> assertThat(running.get()).extracting(PathInputContext::getMessage).isEqualTo("Path ok"));
+
+		// result for dir2 arrived after input changed and was never shown
+		assertThat(messages).doesNotContain("dir2:Directory exists", "dir2x:Directory exists");
+		await().atMost(Duration.ofSeconds(4))
+				.untilAsserted(() -> assertThat(messages).endsWith("dir2x:Path ok"));
+		write(new TestBuffer().cr().getBytes());
+
+		latch1.await(2, TimeUnit.SECONDS);
+		assertThat(result1.get().getResultValue().toString()).isEqualTo("dir2x");
+	}
+
+	/**
+	 * Records rendered input and message pairs as 'input:message'.
+	 */
+	private List<String> recordMessages(PathInput component) {
+		PathInput renderer = configure(new PathInput(getTerminal(), "component1"));
+		List<String> messages = new CopyOnWriteArrayList<>();
+		component.setRenderer(context -> {
+			if (context.getResultValue() == null) {
+				messages.add(context.getInput() + ":" + context.getMessage());
+			}
+			return renderer.render(context);
+		});
+		return messages;
+	}
+
+	private AtomicReference<PathInputContext> runComponent(PathInput component) {
+		AtomicReference<PathInputContext> running = new AtomicReference<>();
+		component.addPreRunHandler(running::set);
+		ComponentContext<?> empty = ComponentContext.empty();
+		service.execute(() -> {
+			PathInputContext run1Context = component.run(empty);
+			result1.set(run1Context);
+			latch1.countDown();
+		});
+		return running;
+	}
+
+	private PathInput configure(PathInput component) {
+		component.setPathProvider(pathProvider);
+		component.setResourceLoader(new DefaultResourceLoader());
+		component.setTemplateExecutor(templateExecutor);
+		component.setThemeResolver(themeResolver);
+		return component;
+	}
+
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.jline.utils.AttributedString;
+
+import org.springframework.experimental.initializrcli.component.context.ComponentContext;
+import org.springframework.experimental.initializrcli.component.support.AbstractComponent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Renderer for a running component which renders every context with a
+ * component using its hand-written default renderer and with a component
+ * using a default {@code .stg} template, recording both as ansi strings so
+ * that text and styles can be compared.
+ *
+ * @author Janne Valkealahti
+ */
+class RendererComparison<T extends ComponentContext<T>> implements Function<T, List<AttributedString>> {
+
+	private final AbstractComponent<T> renderer;
+	private final AbstractComponent<T> template;
+	private final List<List<String>> rendered = new CopyOnWriteArrayList<>();
+	private final List<List<String>> templated = new CopyOnWriteArrayList<>();
+
+	RendererComparison(AbstractComponent<T> renderer, AbstractComponent<T> template) {
+		this.renderer = renderer;
+		this.template = template;
+	}
+
+	@Override
+	public List<AttributedString> apply(T context) {
+		List<AttributedString> rows = renderer.render(context);
+		rendered.add(toAnsi(rows));
+		templated.add(toAnsi(template.render(context)));
+		return rows;
+	}
+
+	/**
+	 * Asserts that every frame was rendered identically and that styles were
+	 * actually applied.
+	 */
+	void assertSameOutput() {
+		assertThat(rendered).isNotEmpty().isEqualTo(templated);
+		assertThat(rendered).anySatisfy(rows -> assertThat(String.join("\n", rows)).contains("\u001B["));
+	}
+
+	private static List<String> toAnsi(List<AttributedString> rows) {
+		return rows.stream().map(AttributedString::toAnsi).collect(Collectors.toList());
+	}
+}
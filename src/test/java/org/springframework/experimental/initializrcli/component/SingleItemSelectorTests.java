@@ -24,14 +24,17 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
+import org.jline.utils.AttributedString;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.experimental.initializrcli.AbstractShellTests;
+import org.springframework.experimental.initializrcli.component.SingleItemSelector.SingleItemSelectorContext;
 import org.springframework.experimental.initializrcli.component.context.ComponentContext;
 import org.springframework.experimental.initializrcli.component.support.SelectorItem;
 import org.springframework.shell.style.TemplateExecutor;
@@ -46,6 +49,8 @@ import static org.springframework.experimental.initializrcli.ShellAssertions.ass
 
 public class SingleItemSelectorTests extends AbstractShellTests {
 
+	private final static String TEMPLATE_LOCATION = "classpath:/org/springframework/shell/component/single-item-selector-default.stg";
+
 	private static SimplePojo SIMPLE_POJO_1 = SimplePojo.of("data1");
 	private static SimplePojo SIMPLE_POJO_2 = SimplePojo.of("data2");
 	private static SimplePojo SIMPLE_POJO_3 = SimplePojo.of("data3");
@@ -63,6 +68,7 @@ public class SingleItemSelectorTests extends AbstractShellTests {
 	private CountDownLatch latch;
 	private AtomicReference<Optional<SelectorItem<SimplePojo>>> result;
 	private TemplateExecutor templateExecutor;
+	private ThemeResolver themeResolver;
 
 	@BeforeEach
 	public void setupMulti() {
@@ -82,7 +88,7 @@ public class SingleItemSelectorTests extends AbstractShellTests {
 				return ThemeSettings.themeSettings();
 			}
 		});
-		ThemeResolver themeResolver = new ThemeResolver(themeRegistry, "default");
+		themeResolver = new ThemeResolver(themeRegistry, "default");
 		templateExecutor = new TemplateExecutor(themeResolver);
 	}
 
@@ -198,6 +204,75 @@ public class SingleItemSelectorTests extends AbstractShellTests {
 		assertThat(selected).isNotEmpty();
 	}
 
+	@Test
+	public void testFilterBackspaceThenOtherChar() throws InterruptedException {
+		scheduleSelect();
+
+		// narrow, drop back to all items and narrow with a different char
+		TestBuffer testBuffer = new TestBuffer().append("1").backspace().append("3").cr();
+		write(testBuffer.getBytes());
+
+		assertThat(awaitLatch()).isTrue();
+
+		Optional<SelectorItem<SimplePojo>> selected = result.get();
+		assertThat(selected).isNotEmpty();
+		assertThat(selected.get().getItem().getData()).isEqualTo("data3");
+	}
+
+	@Test
+	public void testFilterNarrowsAndWidensRepeatedly() throws InterruptedException {
+		scheduleSelect();
+
+		TestBuffer testBuffer = new TestBuffer().append("Pojo4").backspace(3).append("jo2").cr();
+		write(testBuffer.getBytes());
+
+		assertThat(awaitLatch()).isTrue();
+
+		Optional<SelectorItem<SimplePojo>> selected = result.get();
+		assertThat(selected).isNotEmpty();
+		assertThat(selected.get().getItem().getData()).isEqualTo("data2");
+	}
+
+	@Test
+	public void testCursorClampedWhenFilterNarrowsAndPops() throws InterruptedException {
+		scheduleSelect(Arrays.asList(SELECTOR_ITEM_1, SELECTOR_ITEM_2, SELECTOR_ITEM_3, SELECTOR_ITEM_4,
+				SELECTOR_ITEM_5, SELECTOR_ITEM_6), 3);
+
+		// scroll a viewport down to a fifth item, then narrow to a single item
+		TestBuffer testBuffer = new TestBuffer().ctrlE().ctrlE().ctrlE().ctrlE().append("6");
+		write(testBuffer.getBytes());
+
+		await().atMost(Duration.ofSeconds(4))
+				.untilAsserted(() -> assertThat(consoleOut()).contains("> simplePojo6"));
+
+		// popping a filter keeps a cursor within a wider list
+		testBuffer = new TestBuffer().backspace().cr();
+		write(testBuffer.getBytes());
+
+		assertThat(awaitLatch()).isTrue();
+
+		Optional<SelectorItem<SimplePojo>> selected = result.get();
+		assertThat(selected).isNotEmpty();
+		assertThat(selected.get().getItem().getData()).isEqualTo("data1");
+	}
+
+	@Test
+	public void testRendererMatchesTemplate() throws InterruptedException {
+		List<SelectorItem<SimplePojo>> items = Arrays.asList(SELECTOR_ITEM_1, SELECTOR_ITEM_2, SELECTOR_ITEM_3, SELECTOR_ITEM_4);
+		SingleItemSelector<SimplePojo, SelectorItem<SimplePojo>> template = selector(items);
+		template.setTemplateLocation(TEMPLATE_LOCATION);
+		RendererComparison<SingleItemSelectorContext<SimplePojo, SelectorItem<SimplePojo>>> comparison = new RendererComparison<>(
+				selector(items), template);
+		scheduleSelect(items, null, comparison);
+
+		TestBuffer testBuffer = new TestBuffer().down().append("3").cr();
+		write(testBuffer.getBytes());
+		awaitLatch();
+
+		assertThat(result.get()).isPresent();
+		comparison.assertSameOutput();
+	}
+
 	private void scheduleSelect() {
 		scheduleSelect(Arrays.asList(SELECTOR_ITEM_1, SELECTOR_ITEM_2, SELECTOR_ITEM_3,
 				SELECTOR_ITEM_4));
@@ -208,10 +283,15 @@ public class SingleItemSelectorTests extends AbstractShellTests {
 	}
 
 	private void scheduleSelect(List<SelectorItem<SimplePojo>> items, Integer maxItems) {
-		SingleItemSelector<SimplePojo, SelectorItem<SimplePojo>> selector = new SingleItemSelector<>(getTerminal(),
-				items, "testSimple", null);
-		selector.setResourceLoader(new DefaultResourceLoader());
-		selector.setTemplateExecutor(templateExecutor);
+		scheduleSelect(items, maxItems, null);
+	}
+
+	private void scheduleSelect(List<SelectorItem<SimplePojo>> items, Integer maxItems,
+			Function<SingleItemSelectorContext<SimplePojo, SelectorItem<SimplePojo>>, List<AttributedString>> renderer) {
+		SingleItemSelector<SimplePojo, SelectorItem<SimplePojo>> selector = selector(items);
+		if (renderer != null) {
+			selector.setRenderer(renderer);
+		}
 
 		selector.setPrintResults(true);
 		if (maxItems != null) {
@@ -224,6 +304,15 @@ public class SingleItemSelectorTests extends AbstractShellTests {
 		});
 	}
 
+	private SingleItemSelector<SimplePojo, SelectorItem<SimplePojo>> selector(List<SelectorItem<SimplePojo>> items) {
+		SingleItemSelector<SimplePojo, SelectorItem<SimplePojo>> selector = new SingleItemSelector<>(getTerminal(),
+				items, "testSimple", null);
+		selector.setResourceLoader(new DefaultResourceLoader());
+		selector.setTemplateExecutor(templateExecutor);
+		selector.setThemeResolver(themeResolver);
+		return selector;
+	}
+
 	private boolean awaitLatch() throws InterruptedException {
 		return awaitLatch(4);
 	}
@@ -15,12 +15,17 @@
  */
 package org.springframework.experimental.initializrcli.component;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.jline.utils.AttributedString;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,15 +41,19 @@ import org.springframework.shell.style.ThemeResolver;
 import org.springframework.shell.style.ThemeSettings;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 public class StringInputTests extends AbstractShellTests {
 
+	private final static String TEMPLATE_LOCATION = "classpath:/org/springframework/shell/component/string-input-default.stg";
+
 	private ExecutorService service;
 	private CountDownLatch latch1;
 	private CountDownLatch latch2;
 	private AtomicReference<StringInputContext> result1;
 	private AtomicReference<StringInputContext> result2;
 	private TemplateExecutor templateExecutor;
+	private ThemeResolver themeResolver;
 
 	@BeforeEach
 	public void setupTests() {
@@ -66,7 +75,7 @@ public class StringInputTests extends AbstractShellTests {
 				return ThemeSettings.themeSettings();
 			}
 		});
-		ThemeResolver themeResolver = new ThemeResolver(themeRegistry, "default");
+		themeResolver = new ThemeResolver(themeRegistry, "default");
 		templateExecutor = new TemplateExecutor(themeResolver);
 	}
 
@@ -183,4 +192,140 @@ public class StringInputTests extends AbstractShellTests {
 		assertThat(run1Context.getResultValue()).isEqualTo("component1ResultValue");
 		assertThat(run2Context.getResultValue()).isEqualTo("component1ResultValue");
 	}
+
+	@Test
+	public void testRendererMatchesTemplate() throws InterruptedException {
+		ComponentContext<?> empty = ComponentContext.empty();
+		StringInput component1 = configure(new StringInput(getTerminal(), "component1", "component1ResultValue"));
+		StringInput template = configure(new StringInput(getTerminal(), "component1", null));
+		template.setTemplateLocation(TEMPLATE_LOCATION);
+		RendererComparison<StringInputContext> comparison = new RendererComparison<>(
+				configure(new StringInput(getTerminal(), "component1", null)), template);
+		component1.setRenderer(comparison);
+
+		service.execute(() -> {
+			StringInputContext run1Context = component1.run(empty);
+			result1.set(run1Context);
+			latch1.countDown();
+		});
+
+		// default value, user input and a result
+		TestBuffer testBuffer = new TestBuffer().append("test1").backspace().cr();
+		write(testBuffer.getBytes());
+
+		latch1.await(2, TimeUnit.SECONDS);
+		StringInputContext run1Context = result1.get();
+
+		assertThat(run1Context).isNotNull();
+		assertThat(run1Context.getResultValue()).isEqualTo("test");
+		comparison.assertSameOutput();
+	}
+
+	@Test
+	public void testNonAsciiInput() throws InterruptedException {
+		assertThat(runWithInput(new TestBuffer().append("été").append(" café").cr())).isEqualTo("été café");
+	}
+
+	@Test
+	public void testBracketedPaste() throws InterruptedException {
+		// line breaks within a paste don't complete an input
+		TestBuffer testBuffer = new TestBuffer().append("a").append("\u001B[200~pasté\r\nline\tend\u001B[201~")
+				.append("z").cr();
+		assertThat(runWithInput(testBuffer)).isEqualTo("apastélineendz");
+	}
+
+	@Test
+	public void testBurstInput() throws InterruptedException {
+		// a whole burst in one write including a backspace and an exit
+		TestBuffer testBuffer = new TestBuffer().append("abc").append("déf").backspace().append("g").cr();
+		assertThat(runWithInput(testBuffer)).isEqualTo("abcdég");
+	}
+
+	@Test
+	public void testBurstRenderedOnce() throws InterruptedException {
+		ComponentContext<?> empty = ComponentContext.empty();
+		StringInput component1 = configure(new StringInput(getTerminal(), "component1", null));
+		StringInput renderer = configure(new StringInput(getTerminal(), "component1", null));
+		List<String> frames = new CopyOnWriteArrayList<>();
+		component1.setRenderer(context -> {
+			List<AttributedString> rows = renderer.render(context);
+			frames.add(AttributedString.join(new AttributedString("\n"), rows).toString());
+			return rows;
+		});
+
+		service.execute(() -> {
+			StringInputContext run1Context = component1.run(empty);
+			result1.set(run1Context);
+			latch1.countDown();
+		});
+
+		await().atMost(Duration.ofSeconds(4)).until(() -> frames.size() == 1);
+		write(new TestBuffer().append("abcdefghij").getBytes());
+		await().atMost(Duration.ofSeconds(4))
+				.until(() -> frames.get(frames.size() - 1).equals("? component1 abcdefghij"));
+
+		// a first frame and a burst painted as a whole, possibly split in two
+		// if input arrived in pieces, but never a frame per key
+		assertThat(frames.size()).isLessThanOrEqualTo(3);
+		assertThat(frames.get(0)).isEqualTo("? component1 [Default ]");
+
+		write(new TestBuffer().cr().getBytes());
+		latch1.await(2, TimeUnit.SECONDS);
+		assertThat(result1.get().getResultValue()).isEqualTo("abcdefghij");
+		assertThat(consoleOut()).contains("component1 abcdefghij");
+	}
+
+	@Test
+	public void testIdleNotRenderedAgain() throws InterruptedException {
+		ComponentContext<?> empty = ComponentContext.empty();
+		StringInput component1 = configure(new StringInput(getTerminal(), "component1", "component1ResultValue"));
+		StringInput renderer = configure(new StringInput(getTerminal(), "component1", null));
+		AtomicInteger renders = new AtomicInteger();
+		component1.setRenderer(context -> {
+			renders.incrementAndGet();
+			return renderer.render(context);
+		});
+
+		service.execute(() -> {
+			StringInputContext run1Context = component1.run(empty);
+			result1.set(run1Context);
+			latch1.countDown();
+		});
+
+		await().atMost(Duration.ofSeconds(4)).until(() -> renders.get() == 1);
+		// nothing happens while idle and backspace on empty input doesn't
+		// render either
+		await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(2)).until(() -> renders.get() == 1);
+		write(new TestBuffer().backspace().backspace().getBytes());
+		await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(2)).until(() -> renders.get() == 1);
+
+		write(new TestBuffer().cr().getBytes());
+		latch1.await(2, TimeUnit.SECONDS);
+		assertThat(result1.get().getResultValue()).isEqualTo("component1ResultValue");
+	}
+
+	private String runWithInput(TestBuffer testBuffer) throws InterruptedException {
+		ComponentContext<?> empty = ComponentContext.empty();
+		StringInput component1 = configure(new StringInput(getTerminal(), "component1", "component1ResultValue"));
+
+		service.execute(() -> {
+			StringInputContext run1Context = component1.run(empty);
+			result1.set(run1Context);
+			latch1.countDown();
+		});
+
+		write(testBuffer.getBytes());
+
+		latch1.await(2, TimeUnit.SECONDS);
+		StringInputContext run1Context = result1.get();
+		assertThat(run1Context).isNotNull();
+		return run1Context.getResultValue();
+	}
+
+	private StringInput configure(StringInput component) {
+		component.setResourceLoader(new DefaultResourceLoader());
+		component.setTemplateExecutor(templateExecutor);
+		component.setThemeResolver(themeResolver);
+		return component;
+	}
 }
@@ -45,4 +45,64 @@ public class ComponentContextTests {
 			context.get("foo", Integer.class);
 		}).isInstanceOf(IllegalArgumentException.class);
 	}
+
+	@Test
+	public void testMissingKey() {
+		ComponentContext<?> context = ComponentContext.empty();
+		assertThat((Object) context.get("foo")).isNull();
+		assertThat(context.get("foo", String.class)).isNull();
+	}
+
+	@Test
+	public void testPutAllCopiesOnWrite() {
+		ComponentContext<?> parent = ComponentContext.empty();
+		parent.put("foo", "bar");
+		ComponentContext<?> child = ComponentContext.empty();
+		child.putAll(parent);
+		assertThat(child.get("foo", String.class)).isEqualTo("bar");
+
+		child.put("foo", "child");
+		parent.put("bar", "parent");
+		assertThat(parent.get("foo", String.class)).isEqualTo("bar");
+		assertThat(child.get("foo", String.class)).isEqualTo("child");
+		assertThat(child.stream()).containsExactlyInAnyOrder(Map.entry("foo", "child"));
+		assertThat(parent.stream()).containsExactlyInAnyOrder(Map.entry("foo", "bar"), Map.entry("bar", "parent"));
+	}
+
+	@Test
+	public void testStreamKeepsInsertionOrder() {
+		ComponentContext<?> context = ComponentContext.empty();
+		context.put("c", 1);
+		context.put("a", 2);
+		context.put("b", 3);
+		context.put("a", 4);
+		assertThat(context.stream()).containsExactly(Map.entry("c", 1), Map.entry("a", 4), Map.entry("b", 3));
+	}
+
+	@Test
+	public void testOrderNotAffectedByOtherContexts() {
+		// keys put in a different order elsewhere don't change an order here
+		ComponentContext<?> other = ComponentContext.empty();
+		other.put("b", 1);
+		other.put("a", 2);
+		ComponentContext<?> context = ComponentContext.empty();
+		context.put("a", 3);
+		context.put("b", 4);
+		assertThat(context.stream()).containsExactly(Map.entry("a", 3), Map.entry("b", 4));
+	}
+
+	@Test
+	public void testChildOrderFollowsParentThenOwnKeys() {
+		// like values flow from one component to a next one in a flow
+		ComponentContext<?> parent = ComponentContext.empty();
+		parent.put("project", "maven");
+		parent.put("language", "java");
+		ComponentContext<?> child = ComponentContext.empty();
+		child.putAll(parent);
+		child.put("bootVersion", "2.6.3");
+		child.put("project", "gradle");
+		assertThat(child.stream()).containsExactly(Map.entry("project", "gradle"), Map.entry("language", "java"),
+				Map.entry("bootVersion", "2.6.3"));
+		assertThat(parent.stream()).containsExactly(Map.entry("project", "maven"), Map.entry("language", "java"));
+	}
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.component.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MatcherTests {
+
+	@Test
+	public void testSubstring() {
+		Matcher matcher = Matcher.substring();
+		int[] positions = new int[3];
+		assertThat(matcher.match(chars("spring web"), chars("web"), positions)).isNotEqualTo(Matcher.NO_MATCH);
+		assertThat(positions).containsExactly(7, 8, 9);
+		assertThat(matcher.match(chars("spring web"), chars("wbx"), null)).isEqualTo(Matcher.NO_MATCH);
+		assertThat(matcher.match(chars("web"), chars("web"), null))
+				.isGreaterThan(matcher.match(chars("spring web"), chars("web"), null));
+	}
+
+	@Test
+	public void testFuzzy() {
+		Matcher matcher = Matcher.fuzzy();
+		int[] positions = new int[5];
+		char[] text = chars("spring reactive web webflux");
+		assertThat(matcher.match(text, chars("wbflx"), positions)).isNotEqualTo(Matcher.NO_MATCH);
+		assertThat(positions).containsExactly(20, 22, 23, 24, 26);
+		assertThat(matcher.match(text, chars("xw"), null)).isEqualTo(Matcher.NO_MATCH);
+	}
+
+	@Test
+	public void testFuzzyRanksConsecutiveAndBoundaryHigher() {
+		Matcher matcher = Matcher.fuzzy();
+		int web = matcher.match(chars("spring web"), chars("web"), null);
+		int scattered = matcher.match(chars("spring reactive web services"), chars("rws"), null);
+		int consecutive = matcher.match(chars("spring rws"), chars("rws"), null);
+		assertThat(web).isGreaterThan(0);
+		assertThat(consecutive).isGreaterThan(scattered);
+	}
+
+	private static char[] chars(String text) {
+		return text.toCharArray();
+	}
+}
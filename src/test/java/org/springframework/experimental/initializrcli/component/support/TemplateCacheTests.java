@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.component.support;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.experimental.initializrcli.AbstractShellTests;
+import org.springframework.experimental.initializrcli.component.StringInput;
+import org.springframework.experimental.initializrcli.component.StringInput.StringInputContext;
+import org.springframework.experimental.initializrcli.component.context.ComponentContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TemplateCacheTests extends AbstractShellTests {
+
+	// not used by other tests so that a shared cache has a known state
+	private final static String LOCATION = "classpath:template-cache-tests/string-input.stg";
+
+	private CountingResourceLoader resourceLoader;
+
+	@BeforeEach
+	public void setupTests() {
+		resourceLoader = new CountingResourceLoader();
+		TemplateCache.getSharedInstance().evict(LOCATION);
+	}
+
+	@Test
+	public void testSourceReadOnceUntilEvicted() {
+		TemplateCache cache = new TemplateCache();
+		String source = cache.getSource(LOCATION, resourceLoader);
+		assertThat(source).contains("main(model)");
+		assertThat(cache.getSource(LOCATION, resourceLoader)).isSameAs(source);
+		assertThat(resourceLoader.getCount()).isEqualTo(1);
+
+		cache.evict(LOCATION);
+		assertThat(cache.getSource(LOCATION, resourceLoader)).isEqualTo(source);
+		assertThat(resourceLoader.getCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testTemplateLoadedOnceAcrossRuns() throws Exception {
+		ExecutorService service = Executors.newSingleThreadExecutor();
+		try {
+			// every run renders several frames with a same template
+			for (int i = 0; i < 3; i++) {
+				StringInput component = new StringInput(getTerminal(), "component" + i, "value" + i);
+				component.setResourceLoader(resourceLoader);
+				component.setTemplateExecutor(getTemplateExecutor());
+				component.setTemplateLocation(LOCATION);
+				Future<StringInputContext> result = service.submit(() -> component.run(ComponentContext.empty()));
+
+				write(new TestBuffer().append("abc").backspace().cr().getBytes());
+
+				assertThat(result.get(4, TimeUnit.SECONDS).getResultValue()).isEqualTo("ab");
+			}
+		}
+		finally {
+			service.shutdownNow();
+		}
+		assertThat(consoleOut()).contains("component2 ab");
+		assertThat(resourceLoader.getCount()).isEqualTo(1);
+	}
+
+	/**
+	 * Resource loader counting resource lookups and resolving every location
+	 * to a default string input template.
+	 */
+	private static class CountingResourceLoader implements ResourceLoader {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Resource getResource(String location) {
+			count.incrementAndGet();
+			return new ClassPathResource("org/springframework/shell/component/string-input-default.stg");
+		}
+
+		@Override
+		public ClassLoader getClassLoader() {
+			return getClass().getClassLoader();
+		}
+
+		int getCount() {
+			return count.get();
+		}
+	}
+}
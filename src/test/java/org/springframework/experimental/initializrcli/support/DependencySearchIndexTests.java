@@ -0,0 +1,146 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.experimental.initializrcli.client.model.Dependency;
+import org.springframework.experimental.initializrcli.client.model.DependencyCategory;
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.StringUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DependencySearchIndexTests {
+
+	private static Metadata metadata;
+	private static MetadataIndex index;
+
+	@BeforeAll
+	static void setup() throws IOException {
+		try (InputStream in = new ClassPathResource("stub/metadata-v2.2.json").getInputStream()) {
+			metadata = Jackson2ObjectMapperBuilder.json().build().readValue(in, Metadata.class);
+		}
+		index = MetadataIndex.of(metadata);
+	}
+
+	@Test
+	public void testEmptyMatchesAll() {
+		assertThat(search(null)).hasSize(index.getDependencyCount());
+		assertThat(search("")).hasSize(index.getDependencyCount());
+	}
+
+	@Test
+	public void testShortQueries() {
+		assertThat(search("h2")).containsExactly("h2");
+		assertThat(search("db")).containsExactly("h2", "postgresql");
+		assertThat(search("x")).containsExactly("devtools", "native", "webflux");
+	}
+
+	@Test
+	public void testMultiTermQueries() {
+		// terms are matched as a phrase like with a plain substring search
+		assertThat(search("reactive web")).containsExactly("webflux");
+		assertThat(search("spring data")).containsExactly("data-jpa");
+		assertThat(search("web flux")).isEmpty();
+	}
+
+	@Test
+	public void testCaseInsensitive() {
+		assertThat(search("WebFlux")).containsExactly("webflux");
+		assertThat(search("GRAPHQL")).containsExactly("graphql");
+		assertThat(search("R2dbc")).containsExactly("h2", "postgresql");
+	}
+
+	@Test
+	public void testVersionRangeIsSearched() {
+		assertThat(search("2.6.3")).containsExactly("native");
+	}
+
+	@Test
+	public void testCategoryIsSearched() {
+		assertThat(search("web")).containsExactly("web", "webflux", "graphql");
+		assertThat(search("Developer")).containsExactly("devtools", "lombok", "native");
+		assertThat(search("ops")).containsExactly("actuator");
+		// match doesn't span from a dependency into its category
+		assertThat(search("actuatorops")).isEmpty();
+	}
+
+	@Test
+	public void testSameAsLinearSearch() {
+		Set<String> queries = new LinkedHashSet<>(Arrays.asList("spring", "spring web", "boot devtools", "java",
+				"2.7.0-M1", "DATABASE", "a", "zzz", " ", "sql", "web", "developer tools", "ops"));
+		// every short substring of ids and names, including ones spanning words
+		for (int i = 0; i < index.getDependencyCount(); i++) {
+			Dependency dependency = index.getDependency(i);
+			for (String field : new String[] { dependency.getId(), dependency.getName() }) {
+				for (int start = 0; start < field.length(); start++) {
+					for (int end = start + 1; end <= Math.min(field.length(), start + 5); end++) {
+						queries.add(field.substring(start, end));
+					}
+				}
+			}
+		}
+		for (String query : queries) {
+			assertThat(search(query)).as("query '%s'", query).isEqualTo(linearSearch(query));
+		}
+	}
+
+	private static List<String> search(String query) {
+		BitSet matches = index.getSearchIndex().search(query);
+		return matches.stream().mapToObj(i -> index.getDependency(i).getId()).collect(Collectors.toList());
+	}
+
+	/**
+	 * Search as it was done before an index existed.
+	 */
+	private static List<String> linearSearch(String query) {
+		List<String> ids = new ArrayList<>();
+		for (DependencyCategory category : metadata.getDependencies().getValues()) {
+			category.getValues().stream()
+					.filter(d -> matches(new String[] { d.getId(), d.getName(), d.getDescription(),
+							d.getVersionRange(), category.getName() }, query))
+					.forEach(d -> ids.add(d.getId()));
+		}
+		return ids;
+	}
+
+	private static boolean matches(String[] array, String search) {
+		if (!StringUtils.hasText(search)) {
+			return true;
+		}
+		search = search.toLowerCase();
+		for (String field : array) {
+			if (StringUtils.hasText(field) && field.toLowerCase().contains(search)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
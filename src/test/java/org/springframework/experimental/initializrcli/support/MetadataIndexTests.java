@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.experimental.initializrcli.client.ProjectRequest;
+import org.springframework.experimental.initializrcli.client.model.Dependency;
+import org.springframework.experimental.initializrcli.client.model.Metadata;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetadataIndexTests {
+
+	private static MetadataIndex index;
+
+	@BeforeAll
+	static void setup() throws IOException {
+		try (InputStream in = new ClassPathResource("stub/metadata-v2.2.json").getInputStream()) {
+			index = MetadataIndex.of(Jackson2ObjectMapperBuilder.json().build().readValue(in, Metadata.class));
+		}
+	}
+
+	@Test
+	public void testApplyDefaults() {
+		ProjectRequest request = new ProjectRequest();
+		index.applyDefaults(request);
+		assertThat(request.getType()).isEqualTo("maven-project");
+		assertThat(request.getLanguage()).isEqualTo("java");
+		assertThat(request.getBootVersion()).isEqualTo("2.6.3");
+		assertThat(request.getVersion()).isEqualTo("0.0.1-SNAPSHOT");
+		assertThat(request.getGroupId()).isEqualTo("com.example");
+		assertThat(request.getArtifactId()).isEqualTo("demo");
+		assertThat(request.getName()).isEqualTo("demo");
+		assertThat(request.getDescription()).isEqualTo("Demo project for Spring Boot");
+		assertThat(request.getPackageName()).isEqualTo("com.example.demo");
+		assertThat(request.getPackaging()).isEqualTo("jar");
+		assertThat(request.getJavaVersion()).isEqualTo("11");
+	}
+
+	@Test
+	public void testApplyDefaultsKeepsGivenValues() {
+		ProjectRequest request = new ProjectRequest();
+		request.setType("gradle-project");
+		request.setBootVersion("2.7.0-M1");
+		request.setArtifactId("app");
+		index.applyDefaults(request);
+		assertThat(request.getType()).isEqualTo("gradle-project");
+		assertThat(request.getBootVersion()).isEqualTo("2.7.0-M1");
+		assertThat(request.getArtifactId()).isEqualTo("app");
+		assertThat(request.getGroupId()).isEqualTo("com.example");
+	}
+
+	@Test
+	public void testValidRequest() {
+		ProjectRequest request = request("2.7.0-M1", "web", "graphql");
+		assertThat(index.validate(request)).isEmpty();
+	}
+
+	@Test
+	public void testValidationErrors() {
+		ProjectRequest request = request("2.6.3", "graphql", "bar", "native");
+		// only project formats are valid types
+		request.setType("maven-build");
+		request.setLanguage("scala");
+		request.setPackaging("ear");
+		request.setJavaVersion("8");
+		assertThat(index.validate(request)).containsExactly(
+				"Unknown project 'maven-build', expected one of [maven-project, gradle-project]",
+				"Unknown language 'scala', expected one of [java, kotlin, groovy]",
+				"Unknown packaging 'ear', expected one of [jar, war]",
+				"Unknown javaVersion '8', expected one of [17, 11, 1.8]",
+				"Dependency 'graphql' requires Spring Boot 2.7.0-M1",
+				"Unknown dependency 'bar'");
+	}
+
+	@Test
+	public void testUnknownBootVersionSkipsVersionRanges() {
+		ProjectRequest request = request("foo", "web", "graphql", "bar");
+		assertThat(index.validate(request)).containsExactly(
+				"Unknown bootVersion 'foo', expected one of [2.7.0-SNAPSHOT, 2.7.0-M1, 2.6.4-SNAPSHOT, 2.6.3, "
+						+ "2.5.10-SNAPSHOT, 2.5.9]",
+				"Unknown dependency 'bar'");
+	}
+
+	@Test
+	public void testCompatibleDependencies() {
+		assertThat(compatible("2.6.3")).contains("native").doesNotContain("graphql").hasSize(9);
+		assertThat(compatible("2.6.4-SNAPSHOT")).doesNotContain("native", "graphql").hasSize(8);
+		assertThat(compatible("2.7.0-M1")).contains("graphql").doesNotContain("native").hasSize(9);
+		assertThat(index.isCompatible(index.getDependency("native"), "2.6.3")).isTrue();
+		assertThat(index.isCompatible(index.getDependency("native"), "2.5.9")).isFalse();
+		assertThat(index.isCompatible(index.getDependency("graphql"), null)).isTrue();
+		assertThat(index.isCompatible(index.getDependency("web"), "2.5.9")).isTrue();
+	}
+
+	@Test
+	public void testVersionsNotInMetadata() {
+		// parsed but not cached
+		assertThat(compatible("2.8.0")).contains("graphql").doesNotContain("native");
+		assertThat(index.compatibleDependencies("2.8.0")).isNotSameAs(index.compatibleDependencies("2.8.0"));
+		// not parsed and only dependencies without a range are compatible
+		assertThat(compatible("foo")).doesNotContain("native", "graphql").hasSize(8);
+		assertThat(index.isCompatible(index.getDependency("graphql"), "foo")).isFalse();
+		assertThat(index.compatibleDependencies("2.6.3")).isSameAs(index.compatibleDependencies("2.6.3"));
+		Map<?, ?> compatibility = (Map<?, ?>) ReflectionTestUtils.getField(index, "compatibility");
+		assertThat(compatibility).hasSize(6);
+	}
+
+	private static ProjectRequest request(String bootVersion, String... dependencies) {
+		ProjectRequest request = new ProjectRequest();
+		request.setBootVersion(bootVersion);
+		request.setDependencies(Arrays.asList(dependencies));
+		index.applyDefaults(request);
+		return request;
+	}
+
+	private static String[] compatible(String bootVersion) {
+		BitSet bits = index.compatibleDependencies(bootVersion);
+		return bits.stream().mapToObj(index::getDependency).map(Dependency::getId).toArray(String[]::new);
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.experimental.initializrcli.support;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.experimental.initializrcli.client.InitializrClient;
+import org.springframework.experimental.initializrcli.client.StubInitializrServer;
+import org.springframework.experimental.initializrcli.config.InitializrCliProperties;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+public class TargetHolderTests {
+
+	private final List<InitializrClientUpdatedEvent> events = new CopyOnWriteArrayList<>();
+	private final List<Thread> eventThreads = new CopyOnWriteArrayList<>();
+	private TargetHolder targetHolder;
+
+	@BeforeEach
+	public void setup() {
+		InitializrCliProperties properties = new InitializrCliProperties();
+		properties.getCache().setEnabled(false);
+		targetHolder = new TargetHolder(WebClient.builder(), properties);
+		targetHolder.setApplicationEventPublisher(event -> {
+			eventThreads.add(Thread.currentThread());
+			events.add((InitializrClientUpdatedEvent) event);
+		});
+	}
+
+	@AfterEach
+	public void cleanup() {
+		targetHolder.destroy();
+	}
+
+	@Test
+	public void testConnectsOnBackground() {
+		Duration latency = Duration.ofSeconds(1);
+		try (StubInitializrServer server = StubInitializrServer.builder().latency(latency).build().start()) {
+			long start = System.nanoTime();
+			targetHolder.changeTarget(new Target(server.getBaseUrl()));
+			assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(latency);
+			assertThat(events).isEmpty();
+
+			// waits for a connection in progress
+			InitializrClient client = targetHolder.getClient();
+			assertThat(client.info()).isEqualTo(server.getBaseUrl());
+			await().atMost(Duration.ofSeconds(4)).until(() -> events.size() == 1);
+			assertThat(events.get(0).getClient()).isSameAs(client);
+			assertThat(eventThreads.get(0).getName()).isEqualTo("target-connect");
+			assertThat(eventThreads.get(0).isDaemon()).isTrue();
+			assertThat(server.getRequests()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void testOnlyCurrentTargetPublished() {
+		try (StubInitializrServer slow = StubInitializrServer.builder().latency(Duration.ofMillis(500)).build()
+				.start();
+				StubInitializrServer fast = StubInitializrServer.builder().build().start()) {
+			targetHolder.changeTarget(new Target(slow.getBaseUrl()));
+			targetHolder.changeTarget(new Target(fast.getBaseUrl()));
+
+			// slow connection completes later and is not published
+			await().atMost(Duration.ofSeconds(4)).until(() -> slow.getRequests() == 1 && events.size() == 1);
+			await().during(Duration.ofSeconds(1)).atMost(Duration.ofSeconds(4)).until(() -> events.size() == 1);
+			assertThat(events.get(0).getClient().info()).isEqualTo(fast.getBaseUrl());
+			assertThat(targetHolder.getClient()).isSameAs(events.get(0).getClient());
+		}
+	}
+
+	@Test
+	public void testReconnectsAfterFailure() {
+		try (StubInitializrServer server = StubInitializrServer.builder().failEvery(2).build().start()) {
+			// first request succeeds so that a connection fails
+			InitializrClient.builder(WebClient.builder()).target(server.getBaseUrl()).build().connect();
+			targetHolder.changeTarget(new Target(server.getBaseUrl()));
+			assertThatThrownBy(() -> targetHolder.getClient()).isInstanceOf(WebClientResponseException.class);
+			await().atMost(Duration.ofSeconds(4)).until(() -> events.size() == 1);
+			assertThat(events.get(0).getClient()).isNull();
+
+			// failed connection is attempted again
+			InitializrClient client = targetHolder.getClient();
+			assertThat(client.getMetadata()).isNotNull();
+			assertThat(server.getRequests()).isEqualTo(3);
+			assertThat(targetHolder.getClient()).isSameAs(client);
+			await().atMost(Duration.ofSeconds(4)).until(() -> events.size() == 2);
+			assertThat(events.get(1).getClient()).isSameAs(client);
+		}
+	}
+
+	@Test
+	public void testMetadataIndexKeptForMetadata() {
+		try (StubInitializrServer server = StubInitializrServer.builder().build().start()) {
+			targetHolder.changeTarget(new Target(server.getBaseUrl()));
+			MetadataIndex index = targetHolder.getMetadataIndex();
+			assertThat(index.getMetadata()).isSameAs(targetHolder.getClient().getMetadata());
+			assertThat(targetHolder.getMetadataIndex()).isSameAs(index);
+
+			targetHolder.changeTarget(new Target(server.getBaseUrl()));
+			assertThat(targetHolder.getMetadataIndex()).isNotSameAs(index);
+		}
+	}
+}
@@ -17,6 +17,7 @@ package org.springframework.experimental.initializrcli.wizard;
 
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,6 +48,7 @@ public class ComponentFlowTests extends AbstractShellTests {
 		ComponentFlow wizard = ComponentFlow.builder(getTerminal())
 				.resourceLoader(getResourceLoader())
 				.templateExecutor(getTemplateExecutor())
+				.themeResolver(getThemeResolver())
 				.withStringInput("field1")
 					.name("Field1")
 					.defaultValue("defaultField1Value")
@@ -154,4 +156,81 @@ public class ComponentFlowTests extends AbstractShellTests {
 			assertThat(id3).isEqualTo("value3");
 			assertThat(id4).containsExactlyInAnyOrder("value4");
 		}
+
+	@Test
+	public void testSelectItemsProviderRunsInBackground() throws InterruptedException {
+		AtomicReference<String> providerThread = new AtomicReference<>();
+		ComponentFlow wizard = ComponentFlow.builder(getTerminal())
+				.resourceLoader(getResourceLoader())
+				.templateExecutor(getTemplateExecutor())
+				.themeResolver(getThemeResolver())
+				.withStringInput("id1")
+					.name("name")
+					.resultValue("value1")
+					.resultMode(ResultMode.ACCEPT)
+					.and()
+				.withMultiItemSelector("multi1")
+					.name("Multi1")
+					.selectItemsProvider(values -> {
+						providerThread.set(Thread.currentThread().getName());
+						return Arrays.asList(SelectItem.of("key1", values.get("id1") + "-item"));
+					}, "id1")
+					.and()
+				.build();
+
+		ExecutorService service = Executors.newFixedThreadPool(1);
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicReference<ComponentFlowResult> result = new AtomicReference<>();
+
+		service.execute(() -> {
+			result.set(wizard.run());
+			latch.countDown();
+		});
+
+		TestBuffer testBuffer = new TestBuffer().space().cr();
+		write(testBuffer.getBytes());
+
+		latch.await(4, TimeUnit.SECONDS);
+		ComponentFlowResult inputWizardResult = result.get();
+		assertThat(inputWizardResult).isNotNull();
+		List<String> multi1 = inputWizardResult.getContext().get("multi1");
+		assertThat(multi1).containsExactly("value1-item");
+		assertThat(providerThread.get()).isEqualTo("component-flow-prefetch");
+	}
+
+	@Test
+	public void testSortByKey() throws InterruptedException {
+		Map<String, String> selectItems = new HashMap<>();
+		selectItems.put("10", "value10");
+		selectItems.put("9", "value9");
+		selectItems.put("11", "value11");
+		ComponentFlow wizard = ComponentFlow.builder(getTerminal())
+				.resourceLoader(getResourceLoader())
+				.templateExecutor(getTemplateExecutor())
+				.themeResolver(getThemeResolver())
+				.withSingleItemSelector("single1")
+					.name("Single1")
+					.selectItems(selectItems)
+					.sort(item -> Integer.valueOf(item.getName()), Comparator.naturalOrder())
+					.and()
+				.build();
+
+		ExecutorService service = Executors.newFixedThreadPool(1);
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicReference<ComponentFlowResult> result = new AtomicReference<>();
+
+		service.execute(() -> {
+			result.set(wizard.run());
+			latch.countDown();
+		});
+
+		TestBuffer testBuffer = new TestBuffer().cr();
+		write(testBuffer.getBytes());
+
+		latch.await(4, TimeUnit.SECONDS);
+		ComponentFlowResult inputWizardResult = result.get();
+		assertThat(inputWizardResult).isNotNull();
+		String single1 = inputWizardResult.getContext().get("single1");
+		assertThat(single1).isEqualTo("value9");
+	}
 }